@@ -0,0 +1,60 @@
+package com.rayjars.fieldmapper.benchmarks;
+
+import com.rayjars.fieldmapper.ConverterRegistry;
+import com.rayjars.fieldmapper.FieldValueMapper;
+import com.rayjars.fieldmapper.InvalidFieldException;
+import com.rayjars.fieldmapper.Param;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First mapping of a class, which builds its plan, against the following ones.
+ * A new registry is used for each cold mapping, so no plan is cached.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(10)
+@State(Scope.Thread)
+public class ColdMappingBenchmark {
+
+    private FieldValueMapper mapper;
+
+    private Param wide;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = new FieldValueMapper();
+        wide = MappedObjects.wideParameters();
+    }
+
+    @Setup(Level.Invocation)
+    public void newRegistry() {
+        mapper.setConverterRegistry(new ConverterRegistry());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10, batchSize = 1)
+    @Measurement(iterations = 50, batchSize = 1)
+    public MappedObjects.WideObject cold() throws InvalidFieldException {
+        MappedObjects.WideObject object = new MappedObjects.WideObject();
+        mapper.mapParamToObject(wide, object);
+        return object;
+    }
+
+    @State(Scope.Thread)
+    public static class Warm {
+        private final FieldValueMapper mapper = new FieldValueMapper();
+        private final Param wide = MappedObjects.wideParameters();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10, batchSize = 1)
+    @Measurement(iterations = 50, batchSize = 1)
+    public MappedObjects.WideObject warm(Warm state) throws InvalidFieldException {
+        MappedObjects.WideObject object = new MappedObjects.WideObject();
+        state.mapper.mapParamToObject(state.wide, object);
+        return object;
+    }
+}
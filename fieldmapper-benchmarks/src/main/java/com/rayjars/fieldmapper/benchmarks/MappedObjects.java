@@ -0,0 +1,200 @@
+package com.rayjars.fieldmapper.benchmarks;
+
+import com.rayjars.fieldmapper.Field;
+import com.rayjars.fieldmapper.Param;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Annotated classes of the mapping benchmarks, and their parameters.
+ */
+public final class MappedObjects {
+
+    private MappedObjects() {
+    }
+
+    public static class SmallObject {
+        @Field(required = true)
+        String name;
+
+        @Field
+        int count;
+
+        @Field(defaultValue = "true")
+        boolean enabled;
+    }
+
+    public static Param smallParameters() {
+        return new Param("small").addChild("name", "benchmark").addChild("count", "42");
+    }
+
+    /**
+     * 32 fields of the common types.
+     */
+    public static class WideObject {
+        @Field
+        String field0;
+
+        @Field
+        int field1;
+
+        @Field
+        long field2;
+
+        @Field
+        double field3;
+
+        @Field
+        boolean field4;
+
+        @Field
+        Integer field5;
+
+        @Field
+        Long field6;
+
+        @Field
+        Double field7;
+
+        @Field
+        String field8;
+
+        @Field
+        int field9;
+
+        @Field
+        long field10;
+
+        @Field
+        double field11;
+
+        @Field
+        boolean field12;
+
+        @Field
+        Integer field13;
+
+        @Field
+        Long field14;
+
+        @Field
+        Double field15;
+
+        @Field
+        String field16;
+
+        @Field
+        int field17;
+
+        @Field
+        long field18;
+
+        @Field
+        double field19;
+
+        @Field
+        boolean field20;
+
+        @Field
+        Integer field21;
+
+        @Field
+        Long field22;
+
+        @Field
+        Double field23;
+
+        @Field
+        String field24;
+
+        @Field
+        int field25;
+
+        @Field
+        long field26;
+
+        @Field
+        double field27;
+
+        @Field
+        boolean field28;
+
+        @Field
+        Integer field29;
+
+        @Field
+        Long field30;
+
+        @Field
+        Double field31;
+    }
+
+    public static Param wideParameters() {
+        return new Param("wide")
+                .addChild("field0", "value0")
+                .addChild("field1", "1")
+                .addChild("field2", "10000002")
+                .addChild("field3", "3.5")
+                .addChild("field4", "true")
+                .addChild("field5", "5")
+                .addChild("field6", "6")
+                .addChild("field7", "7.25")
+                .addChild("field8", "value8")
+                .addChild("field9", "9")
+                .addChild("field10", "100000010")
+                .addChild("field11", "11.5")
+                .addChild("field12", "true")
+                .addChild("field13", "13")
+                .addChild("field14", "14")
+                .addChild("field15", "15.25")
+                .addChild("field16", "value16")
+                .addChild("field17", "17")
+                .addChild("field18", "100000018")
+                .addChild("field19", "19.5")
+                .addChild("field20", "true")
+                .addChild("field21", "21")
+                .addChild("field22", "22")
+                .addChild("field23", "23.25")
+                .addChild("field24", "value24")
+                .addChild("field25", "25")
+                .addChild("field26", "100000026")
+                .addChild("field27", "27.5")
+                .addChild("field28", "true")
+                .addChild("field29", "29")
+                .addChild("field30", "30")
+                .addChild("field31", "31.25");
+    }
+
+    /**
+     * Chain of 4 nested objects, each with a list.
+     */
+    public static class DeepObject {
+        @Field
+        String name;
+
+        @Field
+        Date created;
+
+        @Field
+        List<String> tags;
+
+        @Field
+        DeepObject child;
+    }
+
+    public static Param deepParameters() {
+        return deepParameters(4);
+    }
+
+    private static Param deepParameters(int depth) {
+        Param param = new Param("child")
+                .addChild("name", "level" + depth)
+                .addChild("created", "2005-10-06 2:22:55PM")
+                .addChild(new Param("tags").addChild("tag", "a").addChild("tag", "b").addChild("tag", "c"));
+        if (depth > 1) {
+            param.addChild(deepParameters(depth - 1));
+        }
+        return param;
+    }
+}
@@ -0,0 +1,60 @@
+package com.rayjars.fieldmapper.benchmarks;
+
+import com.rayjars.fieldmapper.FieldValueMapper;
+import com.rayjars.fieldmapper.InvalidFieldException;
+import com.rayjars.fieldmapper.Param;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * mapParamToObject on a small, a wide and a deep object, by reflection and with the compiled mappers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @org.openjdk.jmh.annotations.Param({"reflection", "compiled"})
+    public String mode;
+
+    private FieldValueMapper mapper;
+
+    private Param small;
+    private Param wide;
+    private Param deep;
+
+    @Setup
+    public void setUp() {
+        mapper = new FieldValueMapper();
+        mapper.setCompiledMappers("compiled".equals(mode));
+
+        small = MappedObjects.smallParameters();
+        wide = MappedObjects.wideParameters();
+        deep = MappedObjects.deepParameters();
+    }
+
+    @Benchmark
+    public MappedObjects.SmallObject small() throws InvalidFieldException {
+        MappedObjects.SmallObject object = new MappedObjects.SmallObject();
+        mapper.mapParamToObject(small, object);
+        return object;
+    }
+
+    @Benchmark
+    public MappedObjects.WideObject wide() throws InvalidFieldException {
+        MappedObjects.WideObject object = new MappedObjects.WideObject();
+        mapper.mapParamToObject(wide, object);
+        return object;
+    }
+
+    @Benchmark
+    public MappedObjects.DeepObject deep() throws InvalidFieldException {
+        MappedObjects.DeepObject object = new MappedObjects.DeepObject();
+        mapper.mapParamToObject(deep, object);
+        return object;
+    }
+}
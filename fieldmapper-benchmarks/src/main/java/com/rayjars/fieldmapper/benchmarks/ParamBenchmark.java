@@ -0,0 +1,117 @@
+package com.rayjars.fieldmapper.benchmarks;
+
+import com.rayjars.fieldmapper.Param;
+import com.rayjars.fieldmapper.ParamCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a {@link Param} tree, looking up its children, loading it from properties and its binary format.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class ParamBenchmark {
+
+    @org.openjdk.jmh.annotations.Param({"10", "1000"})
+    public int size;
+
+    private Properties properties;
+
+    private File file;
+
+    private Param tree;
+
+    private ByteBuffer encoded;
+
+    private Param view;
+
+    private String[] names;
+
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        properties = new Properties();
+        names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = "application.module" + (i % 10) + ".key" + i;
+            properties.setProperty(names[i], "value " + i);
+        }
+        tree = new Param("root", properties);
+        encoded = ParamCodec.encode(tree);
+        view = ParamCodec.view(encoded);
+        view.getChilds();
+
+        file = File.createTempFile("benchmark", ".properties");
+        file.deleteOnExit();
+        try (OutputStream out = new FileOutputStream(file)) {
+            properties.store(out, null);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public Param build() {
+        Param param = new Param("root");
+        for (int i = 0; i < size; i++) {
+            param.addChild(names[i], "value");
+        }
+        return param;
+    }
+
+    @Benchmark
+    public Param loadProperties() {
+        return new Param("root", properties);
+    }
+
+    @Benchmark
+    public Param loadFile() throws IOException {
+        return new Param("root").load(file);
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        return ParamCodec.encode(tree);
+    }
+
+    @Benchmark
+    public Param decode() {
+        return ParamCodec.decode(encoded.duplicate());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Param getChild() {
+        next = (next + 1) % size;
+        return tree.getChild(names[next]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String viewOneValue() {
+        next = (next + 1) % size;
+        return ParamCodec.view(encoded).getChild(names[next]).getValue();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Param viewGetChild() {
+        next = (next + 1) % size;
+        return view.getChild(names[next]);
+    }
+}
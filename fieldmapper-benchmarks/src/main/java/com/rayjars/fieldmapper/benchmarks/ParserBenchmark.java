@@ -0,0 +1,151 @@
+package com.rayjars.fieldmapper.benchmarks;
+
+import com.rayjars.fieldmapper.CachingParamFieldParser;
+import com.rayjars.fieldmapper.ConversionCache;
+import com.rayjars.fieldmapper.InvalidFieldValueException;
+import com.rayjars.fieldmapper.Param;
+import com.rayjars.fieldmapper.ParamFieldParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each parseXxx method of the parser, on a string and on a {@link Param} node.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    private final ParamFieldParser parser = new ParamFieldParser();
+
+    private final ParamFieldParser cachingParser = new CachingParamFieldParser(new ConversionCache(256));
+
+    // fields, so the JIT cannot fold the constants
+    private Object longValue = "1234567890123";
+    private Object intValue = "123456";
+    private Object doubleValue = "12345.678";
+    private Object floatValue = "123.45";
+    private Object booleanValue = "true";
+    private Object onlyDate = "2005-10-06";
+    private Object dateTime = "2005-10-06 2:22:55PM";
+    private Object dateMilliseconds = "2005-10-06 2:22:55.1 PM";
+    private Object file = "/var/log/application.log";
+    private Object url = "http://www.google.ca/search?q=fieldmapper";
+    private Object array = "apple,technology,music,design";
+    private Object map = "key1=1,key2=2,key3=3";
+    private Object color = "#D06000";
+    private Object font = "Courier-PLAIN-24";
+    private Object listNode = new Param("list").addChild("cat", "apple").addChild("cat", "technology").addChild("cat", "music");
+
+    @Benchmark
+    public Long parseLong() {
+        return parser.parseLong(longValue);
+    }
+
+    @Benchmark
+    public long parseLongValue() {
+        return parser.parseLongValue(longValue);
+    }
+
+    @Benchmark
+    public Integer parseInt() {
+        return parser.parseInt(intValue);
+    }
+
+    @Benchmark
+    public int parseIntValue() {
+        return parser.parseIntValue(intValue);
+    }
+
+    @Benchmark
+    public Double parseDouble() {
+        return parser.parseDouble(doubleValue);
+    }
+
+    @Benchmark
+    public Float parseFloat() {
+        return parser.parseFloat(floatValue);
+    }
+
+    @Benchmark
+    public Boolean parseBoolean() {
+        return parser.parseBoolean(booleanValue);
+    }
+
+    @Benchmark
+    public Date parseOnlyDate() throws ParseException {
+        return parser.parseDate(onlyDate);
+    }
+
+    @Benchmark
+    public Date parseDateTime() throws ParseException {
+        return parser.parseDate(dateTime);
+    }
+
+    @Benchmark
+    public Date parseDateMilliseconds() throws ParseException {
+        return parser.parseDate(dateMilliseconds);
+    }
+
+    @Benchmark
+    public File parseFile() {
+        return parser.parseFile(file);
+    }
+
+    @Benchmark
+    public URL parseUrl() throws MalformedURLException {
+        return parser.parseUrl(url);
+    }
+
+    @Benchmark
+    public URL parseUrlCached() throws MalformedURLException {
+        return cachingParser.parseUrl(url);
+    }
+
+    @Benchmark
+    public String[] parseArray() throws InvalidFieldValueException {
+        return parser.parseArray(array);
+    }
+
+    @Benchmark
+    public List<String> parseList() throws InvalidFieldValueException {
+        return parser.parseList(array);
+    }
+
+    @Benchmark
+    public List<String> parseListNode() throws InvalidFieldValueException {
+        return parser.parseList(listNode);
+    }
+
+    @Benchmark
+    public Map<String, String> parseMap() throws InvalidFieldValueException {
+        return parser.parseMap(map);
+    }
+
+    @Benchmark
+    public Color parseColor() {
+        return parser.parseColor(color);
+    }
+
+    @Benchmark
+    public Font parseFont() {
+        return parser.parseFont(font);
+    }
+
+    @Benchmark
+    public Font parseFontCached() {
+        return cachingParser.parseFont(font);
+    }
+}
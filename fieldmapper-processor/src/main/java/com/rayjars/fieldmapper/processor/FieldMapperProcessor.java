@@ -0,0 +1,499 @@
+package com.rayjars.fieldmapper.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates a <code>&lt;Type&gt;FieldMapper</code> for every class with <code>com.rayjars.fieldmapper.Field</code>
+ * annotations, and registers it in <code>META-INF/services/com.rayjars.fieldmapper.TypeMapper</code> so
+ * <code>FieldValueMapper</code> uses it instead of reflection.
+ * <br/>
+ * The built-in types are converted by calling the parser, the other types with the converters registered in the
+ * mapper. The generated code assigns the fields directly, so a class is skipped (and mapped by reflection at runtime)
+ * when one of its annotated fields is private or final, or cannot be assigned the parsed value.
+ * <br/>
+ * The generated mapper makes the same callbacks as the reflection to the <code>MappingListener</code> of the mapper.
+ */
+@SupportedAnnotationTypes(FieldMapperProcessor.FIELD_ANNOTATION)
+public class FieldMapperProcessor extends AbstractProcessor {
+
+    static final String FIELD_ANNOTATION = "com.rayjars.fieldmapper.Field";
+
+    static final String PARSER = "com.rayjars.fieldmapper.ParamFieldParser";
+
+    static final String SERVICE_FILE = "META-INF/services/com.rayjars.fieldmapper.TypeMapper";
+
+    private static final String MAPPER_SUFFIX = "FieldMapper";
+
+    private final Set<String> generatedMappers = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+
+        TypeElement fieldAnnotation = processingEnv.getElementUtils().getTypeElement(FIELD_ANNOTATION);
+        if (fieldAnnotation == null || !annotations.contains(fieldAnnotation)) {
+            return false;
+        }
+
+        Set<TypeElement> annotatedTypes = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(fieldAnnotation)) {
+            if (element.getKind() == ElementKind.FIELD) {
+                annotatedTypes.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+
+        for (TypeElement type : annotatedTypes) {
+            try {
+                MapperModel model = new MapperModel(type, fieldAnnotation);
+                writeMapper(model);
+                generatedMappers.add(model.getQualifiedName());
+            } catch (SkipTypeException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "No field mapper generated for " + type.getQualifiedName() + ", it is mapped by reflection: " + e.getMessage(), type);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write the field mapper: " + e.getMessage(), type);
+            }
+        }
+        return false;
+    }
+
+    private void writeMapper(MapperModel model) throws IOException {
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(model.getQualifiedName(), model.type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(model.toSource());
+        }
+    }
+
+    private void writeServiceFile() {
+        if (generatedMappers.isEmpty()) {
+            return;
+        }
+
+        // an incremental compilation only processes the changed types, keep the mappers of the others
+        Set<String> mappers = new TreeSet<>(existingMappers());
+        mappers.addAll(generatedMappers);
+
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = file.openWriter()) {
+                for (String mapper : mappers) {
+                    writer.write(mapper);
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the mappers listed in the service file of a previous compilation, empty if there is none
+     */
+    private Set<String> existingMappers() {
+        Set<String> mappers = new TreeSet<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(file.openReader(true))) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    int comment = line.indexOf('#');
+                    String mapper = (comment < 0 ? line : line.substring(0, comment)).trim();
+                    if (!mapper.isEmpty()) {
+                        mappers.add(mapper);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // no service file yet
+        }
+        return mappers;
+    }
+
+    /**
+     * Conversions of FieldValueMapper, resolved in the same order.
+     */
+    private enum Conversion {
+        STRING("parseString", null),
+        LONG("parseLong", null),
+        INTEGER("parseInt", null),
+        FLOAT("parseFloat", null),
+        DOUBLE("parseDouble", null),
+        BOOLEAN("parseBoolean", null),
+        LONG_VALUE("parseLongValue", null),
+        INT_VALUE("parseIntValue", null),
+        FLOAT_VALUE("parseFloatValue", null),
+        DOUBLE_VALUE("parseDoubleValue", null),
+        BOOLEAN_VALUE("parseBooleanValue", null),
+        DATE("parseDate", "java.text.ParseException"),
+        FILE("parseFile", null),
+        URL("parseUrl", "java.net.MalformedURLException"),
+        ARRAY("parseArray", "com.rayjars.fieldmapper.InvalidFieldValueException"),
+        INT_ARRAY("parseIntArray", "com.rayjars.fieldmapper.InvalidFieldValueException"),
+        LONG_ARRAY("parseLongArray", "com.rayjars.fieldmapper.InvalidFieldValueException"),
+        DOUBLE_ARRAY("parseDoubleArray", "com.rayjars.fieldmapper.InvalidFieldValueException"),
+        LIST("parseList", "com.rayjars.fieldmapper.InvalidFieldValueException"),
+        MAP("parseMap", "com.rayjars.fieldmapper.InvalidFieldValueException"),
+        COLOR("parseColor", null),
+        FONT("parseFont", null);
+
+        private final String parserMethod;
+
+        // checked exception thrown by the parser method, null if none
+        private final String exception;
+
+        Conversion(String parserMethod, String exception) {
+            this.parserMethod = parserMethod;
+            this.exception = exception;
+        }
+    }
+
+    private final class MapperModel {
+        private final TypeElement type;
+        private final String packageName;
+        private final String simpleName;
+        private final List<FieldModel> fields = new ArrayList<>();
+
+        private MapperModel(TypeElement type, TypeElement fieldAnnotation) throws SkipTypeException {
+            this.type = type;
+            this.packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+
+            StringBuilder name = new StringBuilder();
+            for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+                if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                    throw new SkipTypeException(element.getSimpleName() + " is private");
+                }
+                name.insert(0, name.length() == 0 ? element.getSimpleName() : element.getSimpleName() + "_");
+            }
+            this.simpleName = name + MAPPER_SUFFIX;
+
+            // the fields of the superclasses first, a field mapped to the same name shadows the inherited one
+            List<TypeElement> hierarchy = new ArrayList<>();
+            for (TypeElement current = type; current != null; current = superclassOf(current)) {
+                hierarchy.add(current);
+            }
+            Map<String, FieldModel> models = new LinkedHashMap<>();
+            for (int i = hierarchy.size() - 1; i >= 0; i--) {
+                TypeElement declaring = hierarchy.get(i);
+                for (VariableElement field : ElementFilter.fieldsIn(declaring.getEnclosedElements())) {
+                    AnnotationMirror annotation = findAnnotation(field, fieldAnnotation);
+                    if (annotation != null) {
+                        FieldModel model = new FieldModel(field, annotation, declaring == type ? null : inherited(declaring, field));
+                        models.put(model.name, model);
+                    }
+                }
+            }
+            fields.addAll(models.values());
+        }
+
+        /**
+         * @return the erasure of the class declaring an inherited field, to assign it through a cast
+         */
+        private String inherited(TypeElement declaring, VariableElement field) throws SkipTypeException {
+            String declaringPackage = processingEnv.getElementUtils().getPackageOf(declaring).getQualifiedName().toString();
+            boolean visible = declaringPackage.equals(packageName)
+                    || (field.getModifiers().contains(Modifier.PUBLIC) && declaring.getModifiers().contains(Modifier.PUBLIC));
+            if (!visible) {
+                throw new SkipTypeException("the inherited field " + field.getSimpleName() + " is not visible from " + packageName);
+            }
+            return erasure(declaring.asType());
+        }
+
+        private String getQualifiedName() {
+            return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        }
+
+        private String toSource() {
+            String typeName = erasure(type.asType());
+            StringBuilder source = new StringBuilder();
+
+            if (!packageName.isEmpty()) {
+                source.append("package ").append(packageName).append(";\n\n");
+            }
+            source.append("/**\n")
+                    .append(" * Field mapper of {@link ").append(typeName).append("}, generated by ")
+                    .append(FieldMapperProcessor.class.getName()).append(".\n")
+                    .append(" */\n")
+                    .append("public final class ").append(simpleName)
+                    .append(" extends com.rayjars.fieldmapper.TypeMapper<").append(typeName).append("> {\n\n")
+                    .append("    public ").append(simpleName).append("() {\n")
+                    .append("        super(").append(typeName).append(".class);\n")
+                    .append("    }\n\n")
+                    .append("    @Override\n")
+                    .append("    @SuppressWarnings(\"unchecked\")\n")
+                    .append("    public void map(com.rayjars.fieldmapper.FieldValueMapper mapper, com.rayjars.fieldmapper.Param parameters, ")
+                    .append(typeName).append(" instance) throws com.rayjars.fieldmapper.InvalidFieldException {\n")
+                    .append("        com.rayjars.fieldmapper.ParamFieldParser parser = mapper.getParser();\n")
+                    .append("        com.rayjars.fieldmapper.MappingListener listener = mapper.getMappingListener();\n")
+                    .append("        Class<?> type = getType();\n")
+                    .append("        Object value;\n")
+                    .append("        long start;\n");
+
+            for (FieldModel field : fields) {
+                field.appendTo(source);
+            }
+
+            source.append("    }\n")
+                    .append("}\n");
+            return source.toString();
+        }
+    }
+
+    private final class FieldModel {
+        private final String fieldName;
+        private final String name;
+        private final String defaultValue;
+        private final boolean required;
+        private final String fieldType;
+        private final Conversion conversion;
+
+        // the instance, cast to the declaring class for an inherited field
+        private final String target;
+
+        /**
+         * @param declaringType the class declaring an inherited field, null for a field of the mapped type
+         */
+        private FieldModel(VariableElement field, AnnotationMirror annotation, String declaringType) throws SkipTypeException {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)) {
+                throw new SkipTypeException("the field " + field.getSimpleName() + " is private or final");
+            }
+
+            String annotationName = (String) annotationValue(annotation, "name");
+            String annotationDefault = (String) annotationValue(annotation, "defaultValue");
+
+            this.fieldName = field.getSimpleName().toString();
+            this.target = declaringType == null ? "instance" : "((" + declaringType + ") instance)";
+            this.name = annotationName.isEmpty() ? fieldName : annotationName;
+            this.defaultValue = annotationDefault.isEmpty() ? null : annotationDefault;
+            this.required = (Boolean) annotationValue(annotation, "required");
+            this.fieldType = erasure(field.asType());
+            this.conversion = conversionOf(field.asType());
+
+            if (conversion != null && !processingEnv.getTypeUtils().isAssignable(returnType(conversion), field.asType())) {
+                throw new SkipTypeException("the field " + fieldName + " cannot be assigned the result of " + conversion.parserMethod);
+            }
+        }
+
+        private void appendTo(StringBuilder source) {
+            String nameLiteral = literal(name);
+            source.append("\n")
+                    .append("        value = value(listener, type, parameters, ").append(nameLiteral).append(", ").append(literal(defaultValue))
+                    .append(", ").append(required).append(");\n")
+                    .append("        if (value != null) {\n")
+                    .append("            start = started(listener);\n")
+                    .append("            try {\n")
+                    .append("                ").append(target).append(".").append(fieldName).append(" = ");
+
+            if (conversion == null) {
+                // resolved at runtime in the converters of the mapper
+                source.append("(").append(fieldType).append(") convert(mapper, ").append(nameLiteral).append(", ").append(fieldType).append(".class, value);\n");
+            } else {
+                source.append("parser.").append(conversion.parserMethod).append("(value);\n");
+            }
+            source.append("                mapped(listener, type, ").append(nameLiteral).append(", start);\n");
+
+            // the same failures, and the same callbacks, as FieldValueMapper
+            if (conversion == null || (conversion.exception != null && conversion.exception.endsWith("InvalidFieldValueException"))) {
+                source.append("            } catch (com.rayjars.fieldmapper.InvalidFieldValueException e) {\n")
+                        .append("                invalidValue(mapper, ").append(nameLiteral).append(", failed(listener, type, ").append(nameLiteral).append(", e));\n");
+            } else if (conversion.exception != null) {
+                source.append("            } catch (").append(conversion.exception).append(" e) {\n")
+                        .append("                throw cannotAssign(").append(nameLiteral).append(", failed(listener, type, ").append(nameLiteral).append(", e));\n");
+            }
+            if (conversion == null) {
+                source.append("            } catch (com.rayjars.fieldmapper.InvalidFieldException e) {\n")
+                        .append("                throw failed(listener, type, ").append(nameLiteral).append(", e);\n");
+            }
+            source.append("            } catch (RuntimeException e) {\n")
+                    .append("                throw failed(listener, type, ").append(nameLiteral).append(", e);\n")
+                    .append("            }\n")
+                    .append("        }\n");
+        }
+    }
+
+    /**
+     * @return the superclass of the type, null for the direct subclasses of Object
+     */
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) processingEnv.getTypeUtils().asElement(superclass);
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private Conversion conversionOf(TypeMirror fieldType) {
+        switch (fieldType.getKind()) {
+            // primitive fields are parsed without boxing
+            case LONG:
+                return Conversion.LONG_VALUE;
+            case INT:
+                return Conversion.INT_VALUE;
+            case FLOAT:
+                return Conversion.FLOAT_VALUE;
+            case DOUBLE:
+                return Conversion.DOUBLE_VALUE;
+            case BOOLEAN:
+                return Conversion.BOOLEAN_VALUE;
+            case ARRAY:
+                switch (((ArrayType) fieldType).getComponentType().getKind()) {
+                    case INT:
+                        return Conversion.INT_ARRAY;
+                    case LONG:
+                        return Conversion.LONG_ARRAY;
+                    case DOUBLE:
+                        return Conversion.DOUBLE_ARRAY;
+                    default:
+                        return Conversion.ARRAY;
+                }
+            case DECLARED:
+                break;
+            default:
+                return null;
+        }
+
+        if (processingEnv.getTypeUtils().isSameType(erasureOf(fieldType), declared("java.lang.String"))) {
+            return Conversion.STRING;
+        }
+        // same as Class.isAssignableFrom, in the order of FieldValueMapper
+        String[][] candidates = {
+                {"java.lang.Long", "LONG"},
+                {"java.lang.Integer", "INTEGER"},
+                {"java.lang.Float", "FLOAT"},
+                {"java.lang.Double", "DOUBLE"},
+                {"java.lang.Boolean", "BOOLEAN"},
+                {"java.util.Date", "DATE"},
+                {"java.io.File", "FILE"},
+                {"java.net.URL", "URL"},
+                {"java.util.List", "LIST"},
+                {"java.util.Map", "MAP"},
+                {"java.awt.Color", "COLOR"},
+                {"java.awt.Font", "FONT"}
+        };
+        for (String[] candidate : candidates) {
+            TypeMirror candidateType = declared(candidate[0]);
+            if (candidateType != null && processingEnv.getTypeUtils().isSubtype(candidateType, erasureOf(fieldType))) {
+                return Conversion.valueOf(candidate[1]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the return type of the parser method of the conversion
+     */
+    private TypeMirror returnType(Conversion conversion) throws SkipTypeException {
+        Types types = processingEnv.getTypeUtils();
+        Elements elements = processingEnv.getElementUtils();
+        TypeElement parser = elements.getTypeElement(PARSER);
+
+        if (parser != null) {
+            for (ExecutableElement method : ElementFilter.methodsIn(parser.getEnclosedElements())) {
+                if (method.getSimpleName().contentEquals(conversion.parserMethod) && method.getParameters().size() == 1
+                        && types.isSameType(method.getParameters().get(0).asType(), declared("java.lang.Object"))) {
+                    return method.getReturnType();
+                }
+            }
+        }
+        throw new SkipTypeException(PARSER + "." + conversion.parserMethod + "(Object) is not on the classpath");
+    }
+
+    private TypeMirror declared(String name) {
+        TypeElement element = processingEnv.getElementUtils().getTypeElement(name);
+        return element == null ? null : processingEnv.getTypeUtils().erasure(element.asType());
+    }
+
+    private TypeMirror erasureOf(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type);
+    }
+
+    private String erasure(TypeMirror type) {
+        return erasureOf(type).toString();
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, TypeElement annotationType) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().asElement().equals(annotationType)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private Object annotationValue(AnnotationMirror annotation, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        throw new IllegalStateException("No value " + name + " in " + annotation);
+    }
+
+    static String literal(String value) {
+        if (value == null) {
+            return "null";
+        }
+
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private static final class SkipTypeException extends Exception {
+        private SkipTypeException(String message) {
+            super(message);
+        }
+    }
+}
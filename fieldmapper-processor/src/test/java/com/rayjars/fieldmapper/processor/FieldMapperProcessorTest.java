@@ -0,0 +1,335 @@
+package com.rayjars.fieldmapper.processor;
+
+import com.rayjars.fieldmapper.FieldValueMapper;
+import com.rayjars.fieldmapper.InvalidFieldException;
+import com.rayjars.fieldmapper.MappingListener;
+import com.rayjars.fieldmapper.Param;
+import com.rayjars.fieldmapper.ParamFieldParser;
+import com.rayjars.fieldmapper.TypeConverter;
+import com.rayjars.fieldmapper.TypeMapper;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class FieldMapperProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File sources;
+    private File classes;
+
+    @Before
+    public void createFolders() throws IOException {
+        sources = folder.newFolder("sources");
+        classes = folder.newFolder("classes");
+    }
+
+    @Test
+    public void shouldGenerateMapper() throws Exception {
+        compile("sample/User.java",
+                "package sample;\n" +
+                "import com.rayjars.fieldmapper.Field;\n" +
+                "import java.util.List;\n" +
+                "public class User {\n" +
+                "    @Field String firstName;\n" +
+                "    @Field(name = \"age\", defaultValue = \"18\") int age;\n" +
+                "    @Field(required = true) List<String> categories;\n" +
+                "    String notMapped;\n" +
+                "}\n");
+
+        assertThat(new File(classes, "sample/UserFieldMapper.class").exists(), is(true));
+        assertThat(serviceFile(), contains("sample.UserFieldMapper"));
+
+        try (URLClassLoader classLoader = classLoader()) {
+            TypeMapper<Object> mapper = newMapper(classLoader, "sample.UserFieldMapper");
+            Object user = mapper.getType().newInstance();
+
+            mapper.map(new FieldValueMapper(), new Param("root")
+                    .addChild("firstName", "Steeve")
+                    .addChild(new Param("categories").addChild("cat", "apple").addChild("cat", "technology")), user);
+
+            assertThat(get(user, "firstName"), is((Object) "Steeve"));
+            assertThat(get(user, "age"), is((Object) 18));
+            assertThat((List<?>) get(user, "categories"), contains((Object) "apple", "technology"));
+        }
+    }
+
+    @Test
+    public void shouldParsePrimitiveArrays() throws Exception {
+        compile("sample/Sizes.java",
+                "package sample;\n" +
+                "import com.rayjars.fieldmapper.Field;\n" +
+                "public class Sizes {\n" +
+                "    @Field(defaultValue = \"1,2\") int[] ids;\n" +
+                "    @Field long[] sizes;\n" +
+                "    @Field(defaultValue = \"0.5\") double[] weights;\n" +
+                "}\n");
+
+        try (URLClassLoader classLoader = classLoader()) {
+            TypeMapper<Object> mapper = newMapper(classLoader, "sample.SizesFieldMapper");
+            Object sizes = mapper.getType().newInstance();
+
+            mapper.map(new FieldValueMapper(), new Param("root").addChild(new Param("sizes").addChild("0", "4096")), sizes);
+
+            assertThat(get(sizes, "ids"), is((Object) new int[]{1, 2}));
+            assertThat(get(sizes, "sizes"), is((Object) new long[]{4096}));
+            assertThat(get(sizes, "weights"), is((Object) new double[]{0.5}));
+        }
+    }
+
+    @Test
+    public void shouldMapInheritedFields() throws Exception {
+        compile("sample/Hierarchy.java",
+                "package sample;\n" +
+                "import com.rayjars.fieldmapper.Field;\n" +
+                "public class Hierarchy {\n" +
+                "    public static class Base {\n" +
+                "        @Field String name;\n" +
+                "        @Field(defaultValue = \"80\") int port;\n" +
+                "    }\n" +
+                "    public static class Derived extends Base {\n" +
+                "        @Field(name = \"name\") String label;\n" +
+                "        @Field String region;\n" +
+                "    }\n" +
+                "}\n");
+
+        try (URLClassLoader classLoader = classLoader()) {
+            TypeMapper<Object> mapper = newMapper(classLoader, "sample.Hierarchy_DerivedFieldMapper");
+            Object derived = mapper.getType().newInstance();
+
+            mapper.map(new FieldValueMapper(), new Param("root").addChild("name", "primary").addChild("region", "eu"), derived);
+
+            assertThat(get(derived, "label"), is((Object) "primary"));
+            assertThat(get(derived, "region"), is((Object) "eu"));
+            assertThat(get(derived, "port"), is((Object) 80));
+            assertThat(get(derived, "name"), nullValue());
+        }
+    }
+
+    @Test
+    public void shouldMapNestedObject() throws Exception {
+        compile("sample/Outer.java",
+                "package sample;\n" +
+                "import com.rayjars.fieldmapper.Field;\n" +
+                "public class Outer {\n" +
+                "    @Field Inner inner;\n" +
+                "    public static class Inner {\n" +
+                "        @Field String name;\n" +
+                "    }\n" +
+                "}\n");
+
+        try (URLClassLoader classLoader = classLoader()) {
+            TypeMapper<Object> mapper = newMapper(classLoader, "sample.OuterFieldMapper");
+            Object outer = mapper.getType().newInstance();
+
+            mapper.map(new FieldValueMapper(), new Param("root").addChild(new Param("inner").addChild("name", "nested")), outer);
+
+            assertThat(get(get(outer, "inner"), "name"), is((Object) "nested"));
+        }
+    }
+
+    @Test
+    public void shouldKeepRequiredSemantics() throws Exception {
+        compile("sample/Required.java",
+                "package sample;\n" +
+                "public class Required {\n" +
+                "    @com.rayjars.fieldmapper.Field(name = \"test.String\", required = true) String value;\n" +
+                "}\n");
+
+        try (URLClassLoader classLoader = classLoader()) {
+            TypeMapper<Object> mapper = newMapper(classLoader, "sample.RequiredFieldMapper");
+            try {
+                mapper.map(new FieldValueMapper(), new Param("root"), mapper.getType().newInstance());
+            } catch (InvalidFieldException e) {
+                assertThat(e.getMessage(), is("The parameter test.String is required. Cannot be null"));
+                return;
+            }
+            throw new AssertionError("required parameter not validated");
+        }
+    }
+
+    @Test
+    public void shouldReportToMappingListener() throws Exception {
+        compile("sample/Listened.java",
+                "package sample;\n" +
+                "import com.rayjars.fieldmapper.Field;\n" +
+                "public class Listened {\n" +
+                "    @Field String host;\n" +
+                "    @Field(defaultValue = \"80\") int port;\n" +
+                "    @Field int timeout;\n" +
+                "}\n");
+
+        try (URLClassLoader classLoader = classLoader()) {
+            TypeMapper<Object> mapper = newMapper(classLoader, "sample.ListenedFieldMapper");
+            final List<String> events = new ArrayList<>();
+            FieldValueMapper fieldValueMapper = new FieldValueMapper();
+            fieldValueMapper.setMappingListener(new MappingListener.Adapter() {
+                @Override
+                public void fieldMapped(Class<?> type, String name, long nanos) {
+                    events.add("fieldMapped " + type.getSimpleName() + "." + name);
+                }
+
+                @Override
+                public void defaultApplied(Class<?> type, String name, String defaultValue) {
+                    events.add("defaultApplied " + type.getSimpleName() + "." + name + "=" + defaultValue);
+                }
+
+                @Override
+                public void conversionFailed(Class<?> type, String name, Exception cause) {
+                    events.add("conversionFailed " + type.getSimpleName() + "." + name + " " + cause.getClass().getSimpleName());
+                }
+            });
+
+            try {
+                mapper.map(fieldValueMapper, new Param("root").addChild("host", "localhost").addChild("timeout", "never"),
+                        mapper.getType().newInstance());
+                throw new AssertionError("invalid number mapped");
+            } catch (NumberFormatException e) {
+                // runtime exceptions are not wrapped
+            }
+
+            assertThat(events, contains("fieldMapped Listened.host", "defaultApplied Listened.port=80",
+                    "fieldMapped Listened.port", "conversionFailed Listened.timeout NumberFormatException"));
+        }
+    }
+
+    @Test
+    public void shouldConvertWithRegisteredConverter() throws Exception {
+        compile("sample/Identified.java",
+                "package sample;\n" +
+                "public class Identified {\n" +
+                "    @com.rayjars.fieldmapper.Field java.util.UUID id;\n" +
+                "}\n");
+
+        try (URLClassLoader classLoader = classLoader()) {
+            TypeMapper<Object> mapper = newMapper(classLoader, "sample.IdentifiedFieldMapper");
+            Object identified = mapper.getType().newInstance();
+
+            FieldValueMapper fieldValueMapper = new FieldValueMapper();
+            fieldValueMapper.registerConverter(UUID.class, new TypeConverter<UUID>() {
+                @Override
+                public UUID convert(ParamFieldParser parser, Object value) {
+                    return UUID.fromString(parser.parseString(value));
+                }
+            });
+            mapper.map(fieldValueMapper, new Param("root").addChild("id", "6ba7b810-9dad-11d1-80b4-00c04fd430c8"), identified);
+
+            assertThat(get(identified, "id"), is((Object) UUID.fromString("6ba7b810-9dad-11d1-80b4-00c04fd430c8")));
+        }
+    }
+
+    @Test
+    public void shouldSkipPrivateFields() throws Exception {
+        compile("sample/Private.java",
+                "package sample;\n" +
+                "public class Private {\n" +
+                "    @com.rayjars.fieldmapper.Field private String value;\n" +
+                "}\n");
+
+        assertThat(new File(classes, "sample/PrivateFieldMapper.class").exists(), is(false));
+        assertThat(new File(classes, FieldMapperProcessor.SERVICE_FILE).exists(), is(false));
+    }
+
+    @Test
+    public void shouldNameNestedTypeMapper() throws Exception {
+        compile("sample/Outer.java",
+                "package sample;\n" +
+                "public class Outer {\n" +
+                "    public static class Inner {\n" +
+                "        @com.rayjars.fieldmapper.Field(defaultValue = \"a\\\"b\") String value;\n" +
+                "    }\n" +
+                "}\n");
+
+        assertThat(serviceFile(), contains("sample.Outer_InnerFieldMapper"));
+    }
+
+    @Test
+    public void shouldKeepMappersOfPreviousCompilation() throws Exception {
+        compile("sample/First.java",
+                "package sample;\n" +
+                "public class First {\n" +
+                "    @com.rayjars.fieldmapper.Field String value;\n" +
+                "}\n");
+        compile("sample/Second.java",
+                "package sample;\n" +
+                "public class Second {\n" +
+                "    @com.rayjars.fieldmapper.Field String value;\n" +
+                "}\n");
+
+        assertThat(serviceFile(), contains("sample.FirstFieldMapper", "sample.SecondFieldMapper"));
+    }
+
+    @Test
+    public void shouldEscapeLiteral() {
+        assertThat(FieldMapperProcessor.literal("a\"b\\c\n\u00e9"), is("\"a\\\"b\\\\c\\n\\u00e9\""));
+        assertThat(FieldMapperProcessor.literal(null), is("null"));
+    }
+
+    private void compile(String path, String source) throws IOException {
+        File file = new File(sources, path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(file);
+            List<String> options = Arrays.asList("-d", classes.getPath(), "-s", classes.getPath(),
+                    "-classpath", coreClasspath());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+            task.setProcessors(Arrays.asList(new FieldMapperProcessor()));
+
+            assertThat("compilation of " + path, task.call(), is(true));
+        }
+    }
+
+    private List<String> serviceFile() throws IOException {
+        return Files.readAllLines(new File(classes, FieldMapperProcessor.SERVICE_FILE).toPath(), StandardCharsets.UTF_8);
+    }
+
+    private static String coreClasspath() {
+        return new File(TypeMapper.class.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath();
+    }
+
+    private URLClassLoader classLoader() throws IOException {
+        return new URLClassLoader(new URL[]{classes.toURI().toURL()}, getClass().getClassLoader());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TypeMapper<Object> newMapper(ClassLoader classLoader, String name) throws Exception {
+        return (TypeMapper<Object>) classLoader.loadClass(name).newInstance();
+    }
+
+    private static Object get(Object instance, String name) throws Exception {
+        for (Class<?> type = instance.getClass(); ; type = type.getSuperclass()) {
+            try {
+                java.lang.reflect.Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                return field.get(instance);
+            } catch (NoSuchFieldException e) {
+                if (type.getSuperclass() == null) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.rayjars.fieldmapper;
+
+import java.awt.*;
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.lang.reflect.Type;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converters of the types supported out of the box, they delegate to the {@link ParamFieldParser}.
+ * The primitive fields are parsed by the <code>parseXxxValue</code> methods, their wrappers by the boxed ones.
+ */
+final class BuiltinConverters {
+
+    static final TypeConverter<String> STRING = new TypeConverter<String>() {
+        @Override
+        public String convert(ParamFieldParser parser, Object value) {
+            return parser.parseString(value);
+        }
+    };
+
+    static final TypeConverter.OfLong LONG = new TypeConverter.OfLong() {
+        @Override
+        public long convertLong(ParamFieldParser parser, Object value) {
+            return parser.parseLongValue(value);
+        }
+
+        @Override
+        public Long convert(ParamFieldParser parser, Object value) {
+            return parser.parseLong(value);
+        }
+    };
+
+    static final TypeConverter.OfInt INTEGER = new TypeConverter.OfInt() {
+        @Override
+        public int convertInt(ParamFieldParser parser, Object value) {
+            return parser.parseIntValue(value);
+        }
+
+        @Override
+        public Integer convert(ParamFieldParser parser, Object value) {
+            return parser.parseInt(value);
+        }
+    };
+
+    static final TypeConverter.OfFloat FLOAT = new TypeConverter.OfFloat() {
+        @Override
+        public float convertFloat(ParamFieldParser parser, Object value) {
+            return parser.parseFloatValue(value);
+        }
+
+        @Override
+        public Float convert(ParamFieldParser parser, Object value) {
+            return parser.parseFloat(value);
+        }
+    };
+
+    static final TypeConverter.OfDouble DOUBLE = new TypeConverter.OfDouble() {
+        @Override
+        public double convertDouble(ParamFieldParser parser, Object value) {
+            return parser.parseDoubleValue(value);
+        }
+
+        @Override
+        public Double convert(ParamFieldParser parser, Object value) {
+            return parser.parseDouble(value);
+        }
+    };
+
+    static final TypeConverter.OfBoolean BOOLEAN = new TypeConverter.OfBoolean() {
+        @Override
+        public boolean convertBoolean(ParamFieldParser parser, Object value) {
+            return parser.parseBooleanValue(value);
+        }
+
+        @Override
+        public Boolean convert(ParamFieldParser parser, Object value) {
+            return parser.parseBoolean(value);
+        }
+    };
+
+    // "yyyy-MM-dd HH:mm:ss.S a" (a sample date is "2005-10-06 2:22:55.1 PM")
+    //  or "yyyy-MM-dd HH:mm:ssa" (a sample date is "2005-10-06 2:22:55PM")
+    static final TypeConverter<Date> DATE = new TypeConverter<Date>() {
+        @Override
+        public Date convert(ParamFieldParser parser, Object value) throws ParseException {
+            return parser.parseDate(value);
+        }
+    };
+
+    static final TypeConverter<File> FILE = new TypeConverter<File>() {
+        @Override
+        public File convert(ParamFieldParser parser, Object value) {
+            return parser.parseFile(value);
+        }
+    };
+
+    static final TypeConverter<URL> URL = new TypeConverter<URL>() {
+        @Override
+        public URL convert(ParamFieldParser parser, Object value) throws MalformedURLException {
+            return parser.parseUrl(value);
+        }
+    };
+
+    static final TypeConverter<String[]> ARRAY = new TypeConverter<String[]>() {
+        @Override
+        public String[] convert(ParamFieldParser parser, Object value) throws InvalidFieldValueException {
+            return parser.parseArray(value);
+        }
+    };
+
+    static final TypeConverter<int[]> INT_ARRAY = new TypeConverter<int[]>() {
+        @Override
+        public int[] convert(ParamFieldParser parser, Object value) throws InvalidFieldValueException {
+            return parser.parseIntArray(value);
+        }
+    };
+
+    static final TypeConverter<long[]> LONG_ARRAY = new TypeConverter<long[]>() {
+        @Override
+        public long[] convert(ParamFieldParser parser, Object value) throws InvalidFieldValueException {
+            return parser.parseLongArray(value);
+        }
+    };
+
+    static final TypeConverter<double[]> DOUBLE_ARRAY = new TypeConverter<double[]>() {
+        @Override
+        public double[] convert(ParamFieldParser parser, Object value) throws InvalidFieldValueException {
+            return parser.parseDoubleArray(value);
+        }
+    };
+
+    static final TypeConverter<List<String>> LIST = new TypeConverter<List<String>>() {
+        @Override
+        public List<String> convert(ParamFieldParser parser, Object value) throws InvalidFieldValueException {
+            return parser.parseList(value);
+        }
+    };
+
+    static final TypeConverter<Map<String, String>> MAP = new TypeConverter<Map<String, String>>() {
+        @Override
+        public Map<String, String> convert(ParamFieldParser parser, Object value) throws InvalidFieldValueException {
+            return parser.parseMap(value);
+        }
+    };
+
+    static final TypeConverter<Color> COLOR = new TypeConverter<Color>() {
+        @Override
+        public Color convert(ParamFieldParser parser, Object value) {
+            return parser.parseColor(value);
+        }
+    };
+
+    static final TypeConverter<Font> FONT = new TypeConverter<Font>() {
+        @Override
+        public Font convert(ParamFieldParser parser, Object value) {
+            return parser.parseFont(value);
+        }
+    };
+
+    private BuiltinConverters() {
+    }
+
+    static void registerAll(Map<Class<?>, TypeConverter<?>> converters) {
+        converters.put(String.class, STRING);
+        converters.put(Long.class, LONG);
+        converters.put(long.class, LONG);
+        converters.put(Integer.class, INTEGER);
+        converters.put(int.class, INTEGER);
+        converters.put(Float.class, FLOAT);
+        converters.put(float.class, FLOAT);
+        converters.put(Double.class, DOUBLE);
+        converters.put(double.class, DOUBLE);
+        converters.put(Boolean.class, BOOLEAN);
+        converters.put(boolean.class, BOOLEAN);
+        converters.put(Date.class, DATE);
+        converters.put(File.class, FILE);
+        converters.put(URL.class, URL);
+        converters.put(String[].class, ARRAY);
+        converters.put(int[].class, INT_ARRAY);
+        converters.put(long[].class, LONG_ARRAY);
+        converters.put(double[].class, DOUBLE_ARRAY);
+        converters.put(List.class, LIST);
+        converters.put(Map.class, MAP);
+        converters.put(Color.class, COLOR);
+        converters.put(Font.class, FONT);
+    }
+
+    /**
+     * Resolution of the field types without an exact converter, such as Object, Number or Collection,
+     * by the first built-in type the field can hold.
+     *
+     * @return the converter, or null if the type is not supported
+     */
+    static TypeConverter<?> assignableFrom(Class<?> fieldType) {
+        if (fieldType.isAssignableFrom(Long.class)) {
+            return LONG;
+        } else if (fieldType.isAssignableFrom(Integer.class)) {
+            return INTEGER;
+        } else if (fieldType.isAssignableFrom(Float.class)) {
+            return FLOAT;
+        } else if (fieldType.isAssignableFrom(Double.class)) {
+            return DOUBLE;
+        } else if (fieldType.isAssignableFrom(Boolean.class)) {
+            return BOOLEAN;
+        } else if (fieldType.isAssignableFrom(Date.class)) {
+            return DATE;
+        } else if (fieldType.isAssignableFrom(File.class)) {
+            return FILE;
+        } else if (fieldType.isAssignableFrom(URL.class)) {
+            return URL;
+        } else if (fieldType.isArray()) {
+            return ARRAY;
+        } else if (fieldType.isAssignableFrom(List.class)) {
+            return LIST;
+        } else if (fieldType.isAssignableFrom(Map.class)) {
+            return MAP;
+        } else if (fieldType.isAssignableFrom(Color.class)) {
+            return COLOR;
+        } else if (fieldType.isAssignableFrom(Font.class)) {
+            return FONT;
+        }
+        return null;
+    }
+
+    /**
+     * Resolution of the arrays, lists and maps declared with their element type, such as <code>Long[]</code>,
+     * <code>List&lt;Integer&gt;</code> or <code>Map&lt;String, Double&gt;</code>: the elements are converted by the
+     * converter registered for their type. The elements of type String, without converter, or mapped as nested objects
+     * keep the collection converter.
+     *
+     * @param converter the converter found for the field type
+     * @return the typed converter, or the converter found
+     */
+    static TypeConverter<?> typed(TypeConverter<?> converter, Class<?> fieldType, Type genericType, ConverterRegistry converters) {
+        if (converter == ARRAY && fieldType.isArray()) {
+            final Class<?> componentType = fieldType.getComponentType();
+            final TypeConverter<?> element = elementConverter(componentType, converters);
+            if (element != null) {
+                return new TypeConverter<Object>() {
+                    @Override
+                    public Object convert(ParamFieldParser parser, Object value) throws Exception {
+                        return parser.parseArray(value, componentType, element);
+                    }
+                };
+            }
+        } else if (converter == LIST && fieldType.isAssignableFrom(ArrayList.class)) {
+            final TypeConverter<?> element = elementConverter(NestedMapping.typeArgument(genericType, 0), converters);
+            if (element != null) {
+                return new TypeConverter<List<?>>() {
+                    @Override
+                    public List<?> convert(ParamFieldParser parser, Object value) throws Exception {
+                        return parser.parseList(value, element);
+                    }
+                };
+            }
+        } else if (converter == MAP && fieldType.isAssignableFrom(HashMap.class)
+                && NestedMapping.typeArgument(genericType, 0) == String.class) {
+            final TypeConverter<?> element = elementConverter(NestedMapping.typeArgument(genericType, 1), converters);
+            if (element != null) {
+                return new TypeConverter<Map<String, ?>>() {
+                    @Override
+                    public Map<String, ?> convert(ParamFieldParser parser, Object value) throws Exception {
+                        return parser.parseMap(value, element);
+                    }
+                };
+            }
+        }
+        return converter;
+    }
+
+    private static TypeConverter<?> elementConverter(Class<?> elementType, ConverterRegistry converters) {
+        if (elementType == null || elementType == String.class || MappingPlan.isNestable(elementType)) {
+            return null;
+        }
+        // the exact type only, a List<Object> remains a list of strings
+        TypeConverter<?> converter = converters.get(elementType);
+        if (converter == ARRAY || converter == LIST || converter == MAP) {
+            return null;
+        }
+        return converter;
+    }
+}
@@ -0,0 +1,170 @@
+package com.rayjars.fieldmapper;
+
+import java.awt.*;
+import java.io.File;
+import java.net.URL;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formatters of the types supported out of the box, the inverse of the {@link BuiltinConverters}.
+ * They delegate to the {@link StringFieldFormatter}, the primitive fields are formatted from their boxed value.
+ */
+final class BuiltinFormatters {
+
+    static final TypeFormatter<String> STRING = new TypeFormatter<String>() {
+        @Override
+        public String format(StringFieldFormatter formatter, String value) {
+            return formatter.formatString(value);
+        }
+    };
+
+    static final TypeFormatter<Long> LONG = new TypeFormatter<Long>() {
+        @Override
+        public String format(StringFieldFormatter formatter, Long value) {
+            return formatter.formatLong(value);
+        }
+    };
+
+    static final TypeFormatter<Integer> INTEGER = new TypeFormatter<Integer>() {
+        @Override
+        public String format(StringFieldFormatter formatter, Integer value) {
+            return formatter.formatInteger(value);
+        }
+    };
+
+    static final TypeFormatter<Float> FLOAT = new TypeFormatter<Float>() {
+        @Override
+        public String format(StringFieldFormatter formatter, Float value) {
+            return formatter.formatFloat(value);
+        }
+    };
+
+    static final TypeFormatter<Double> DOUBLE = new TypeFormatter<Double>() {
+        @Override
+        public String format(StringFieldFormatter formatter, Double value) {
+            return formatter.formatDouble(value);
+        }
+    };
+
+    static final TypeFormatter<Boolean> BOOLEAN = new TypeFormatter<Boolean>() {
+        @Override
+        public String format(StringFieldFormatter formatter, Boolean value) {
+            return formatter.formatBoolean(value);
+        }
+    };
+
+    static final TypeFormatter<Date> DATE = new TypeFormatter<Date>() {
+        @Override
+        public String format(StringFieldFormatter formatter, Date value) {
+            return formatter.formatDate(value);
+        }
+    };
+
+    static final TypeFormatter<File> FILE = new TypeFormatter<File>() {
+        @Override
+        public String format(StringFieldFormatter formatter, File value) {
+            return formatter.formatFile(value);
+        }
+    };
+
+    static final TypeFormatter<URL> URL = new TypeFormatter<URL>() {
+        @Override
+        public String format(StringFieldFormatter formatter, URL value) {
+            return formatter.formatUrl(value);
+        }
+    };
+
+    static final TypeFormatter<String[]> ARRAY = new TypeFormatter<String[]>() {
+        @Override
+        public String format(StringFieldFormatter formatter, String[] value) {
+            return formatter.formatArray(value);
+        }
+    };
+
+    static final TypeFormatter<int[]> INT_ARRAY = new TypeFormatter<int[]>() {
+        @Override
+        public String format(StringFieldFormatter formatter, int[] value) {
+            return formatter.formatIntArray(value);
+        }
+    };
+
+    static final TypeFormatter<long[]> LONG_ARRAY = new TypeFormatter<long[]>() {
+        @Override
+        public String format(StringFieldFormatter formatter, long[] value) {
+            return formatter.formatLongArray(value);
+        }
+    };
+
+    static final TypeFormatter<double[]> DOUBLE_ARRAY = new TypeFormatter<double[]>() {
+        @Override
+        public String format(StringFieldFormatter formatter, double[] value) {
+            return formatter.formatDoubleArray(value);
+        }
+    };
+
+    static final TypeFormatter<List<String>> LIST = new TypeFormatter<List<String>>() {
+        @Override
+        public String format(StringFieldFormatter formatter, List<String> value) {
+            return formatter.formatList(value);
+        }
+    };
+
+    static final TypeFormatter<Map<String, String>> MAP = new TypeFormatter<Map<String, String>>() {
+        @Override
+        public String format(StringFieldFormatter formatter, Map<String, String> value) {
+            return formatter.formatMap(value);
+        }
+    };
+
+    static final TypeFormatter<Color> COLOR = new TypeFormatter<Color>() {
+        @Override
+        public String format(StringFieldFormatter formatter, Color value) {
+            return formatter.formatColor(value);
+        }
+    };
+
+    static final TypeFormatter<Font> FONT = new TypeFormatter<Font>() {
+        @Override
+        public String format(StringFieldFormatter formatter, Font value) {
+            return formatter.formatFont(value);
+        }
+    };
+
+    private BuiltinFormatters() {
+    }
+
+    static void registerAll(Map<Class<?>, TypeFormatter<?>> formatters) {
+        formatters.put(String.class, STRING);
+        formatters.put(Long.class, LONG);
+        formatters.put(long.class, LONG);
+        formatters.put(Integer.class, INTEGER);
+        formatters.put(int.class, INTEGER);
+        formatters.put(Float.class, FLOAT);
+        formatters.put(float.class, FLOAT);
+        formatters.put(Double.class, DOUBLE);
+        formatters.put(double.class, DOUBLE);
+        formatters.put(Boolean.class, BOOLEAN);
+        formatters.put(boolean.class, BOOLEAN);
+        formatters.put(Date.class, DATE);
+        formatters.put(File.class, FILE);
+        formatters.put(URL.class, URL);
+        formatters.put(String[].class, ARRAY);
+        formatters.put(int[].class, INT_ARRAY);
+        formatters.put(long[].class, LONG_ARRAY);
+        formatters.put(double[].class, DOUBLE_ARRAY);
+        formatters.put(List.class, LIST);
+        formatters.put(Map.class, MAP);
+        formatters.put(Color.class, COLOR);
+        formatters.put(Font.class, FONT);
+    }
+
+    /**
+     * @return true if the formatter writes a collection, which is written as child params in a Param tree
+     */
+    static boolean isCollection(TypeFormatter<?> formatter) {
+        return formatter == ARRAY || formatter == INT_ARRAY || formatter == LONG_ARRAY || formatter == DOUBLE_ARRAY
+                || formatter == LIST || formatter == MAP;
+    }
+}
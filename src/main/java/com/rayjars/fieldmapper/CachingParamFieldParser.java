@@ -0,0 +1,71 @@
+package com.rayjars.fieldmapper;
+
+import java.awt.*;
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+
+/**
+ * Parser memoizing the values which are expensive to build, such as {@link Font#decode(String)} and
+ * {@link URL#URL(String)}, in a bounded {@link ConversionCache}. Opt-in, with {@link FieldValueMapper#setParser}:
+ * <pre>
+ *     mapper.setParser(new CachingParamFieldParser(new ConversionCache(1024)));
+ * </pre>
+ * The dates are mutable, they are parsed each time.
+ */
+public class CachingParamFieldParser extends ParamFieldParser {
+
+    private final ConversionCache cache;
+
+    public CachingParamFieldParser(ConversionCache cache) {
+        this.cache = cache;
+    }
+
+    public ConversionCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public Color parseColor(Object value) {
+        String raw = getStringValue(value);
+        Color color = cache.get(Color.class, raw);
+        if (color == null) {
+            color = super.parseColor(raw);
+            cache.put(Color.class, raw, color);
+        }
+        return color;
+    }
+
+    @Override
+    public Font parseFont(Object value) {
+        String raw = getStringValue(value);
+        Font font = cache.get(Font.class, raw);
+        if (font == null) {
+            font = super.parseFont(raw);
+            cache.put(Font.class, raw, font);
+        }
+        return font;
+    }
+
+    @Override
+    public URL parseUrl(Object value) throws MalformedURLException {
+        String raw = getStringValue(value);
+        URL url = cache.get(URL.class, raw);
+        if (url == null) {
+            url = super.parseUrl(raw);
+            cache.put(URL.class, raw, url);
+        }
+        return url;
+    }
+
+    @Override
+    public File parseFile(Object value) {
+        String raw = getStringValue(value);
+        File file = cache.get(File.class, raw);
+        if (file == null) {
+            file = super.parseFile(raw);
+            cache.put(File.class, raw, file);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,150 @@
+package com.rayjars.fieldmapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Mapper compiled at first use for one annotated type, only when enabled with
+ * {@link FieldValueMapper#setCompiledMappers(boolean)}.
+ * <br/>
+ * Each field is compiled into a single method handle of type (ParamFieldParser, Object instance, Object value)void
+ * which calls the converter bound to the handle and stores the result. The handles are not constants, the JIT does
+ * not inline them into the loop over the fields: the mapper is not faster than the plan walk, which is the default.
+ */
+final class CompiledTypeMapper<T> extends TypeMapper<T> {
+
+    private static final MethodHandle CONVERT = converter(TypeConverter.class, "convert", Object.class);
+    private static final MethodHandle CONVERT_INT = converter(TypeConverter.OfInt.class, "convertInt", int.class);
+    private static final MethodHandle CONVERT_LONG = converter(TypeConverter.OfLong.class, "convertLong", long.class);
+    private static final MethodHandle CONVERT_FLOAT = converter(TypeConverter.OfFloat.class, "convertFloat", float.class);
+    private static final MethodHandle CONVERT_DOUBLE = converter(TypeConverter.OfDouble.class, "convertDouble", double.class);
+    private static final MethodHandle CONVERT_BOOLEAN = converter(TypeConverter.OfBoolean.class, "convertBoolean", boolean.class);
+
+    private final Step[] steps;
+
+    private CompiledTypeMapper(Class<T> type, Step[] steps) {
+        super(type);
+        this.steps = steps;
+    }
+
+    static CompiledTypeMapper<?> compile(MappingPlan plan) {
+        FieldMapping[] fields = plan.getFields();
+        Step[] steps = new Step[fields.length];
+
+        for (int i = 0; i < fields.length; i++) {
+            FieldMapping field = fields[i];
+            MethodHandle store = field.getConverter() == null ? null : store(field);
+            steps[i] = new Step(field, store);
+        }
+        return new CompiledTypeMapper<>(plan.getType(), steps);
+    }
+
+    private static MethodHandle converter(Class<?> converterType, String name, Class<?> convertedType) {
+        try {
+            return MethodHandles.publicLookup().findVirtual(converterType, name,
+                    MethodType.methodType(convertedType, ParamFieldParser.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Folds the conversion into the field setter. A primitive field is converted and stored without boxing.
+     */
+    private static MethodHandle store(FieldMapping field) {
+        Class<?> fieldType = field.getField().getType();
+        Class<?> convertedType = FieldMapping.isPrimitiveConverter(fieldType, field.getConverter()) ? fieldType : Object.class;
+
+        // (instance, converted)void -> (converted, parser, instance, value)void
+        MethodHandle setter = field.getWriter().handle().asType(MethodType.methodType(void.class, Object.class, convertedType));
+        setter = MethodHandles.permuteArguments(setter, MethodType.methodType(void.class, convertedType, Object.class), 1, 0);
+        setter = MethodHandles.dropArguments(setter, 1, ParamFieldParser.class);
+        setter = MethodHandles.dropArguments(setter, 3, Object.class);
+
+        // (parser, value)converted -> (parser, instance, value)converted
+        MethodHandle convert = convertHandle(convertedType).bindTo(field.getConverter());
+        convert = MethodHandles.dropArguments(convert, 1, Object.class);
+
+        return MethodHandles.foldArguments(setter, convert);
+    }
+
+    private static MethodHandle convertHandle(Class<?> convertedType) {
+        if (convertedType == int.class) {
+            return CONVERT_INT;
+        } else if (convertedType == long.class) {
+            return CONVERT_LONG;
+        } else if (convertedType == float.class) {
+            return CONVERT_FLOAT;
+        } else if (convertedType == double.class) {
+            return CONVERT_DOUBLE;
+        } else if (convertedType == boolean.class) {
+            return CONVERT_BOOLEAN;
+        }
+        return CONVERT;
+    }
+
+    @Override
+    public void map(FieldValueMapper mapper, Param parameters, T instance) throws InvalidFieldException {
+        ParamFieldParser parser = mapper.getParser();
+        MappingListener listener = mapper.getMappingListener();
+        Class<T> type = getType();
+
+        for (Step step : steps) {
+            Object value = value(listener, type, parameters, step.name, step.defaultValue, step.required);
+
+            if (value != null) {
+                long start = started(listener);
+                // an ignored invalid value has been reported as a failure
+                if (step.store(mapper, parser, listener, type, instance, value)) {
+                    mapped(listener, type, step.name, start);
+                }
+            }
+        }
+    }
+
+    private static final class Step {
+        private final FieldMapping field;
+        private final String name;
+        private final String defaultValue;
+        private final boolean required;
+        private final MethodHandle store;
+
+        private Step(FieldMapping field, MethodHandle store) {
+            this.field = field;
+            this.name = field.getName();
+            this.defaultValue = field.getDefaultValue();
+            this.required = field.isRequired();
+            this.store = store;
+        }
+
+        /**
+         * @return false if the value is invalid and the mapper ignores the invalid values
+         */
+        private boolean store(FieldValueMapper mapper, ParamFieldParser parser, MappingListener listener, Class<?> type,
+                              Object instance, Object value) throws InvalidFieldException {
+            try {
+                if (store == null) {
+                    // nested objects are mapped with the plan of their type
+                    mapper.assignValueToField(field, instance, value);
+                } else {
+                    store.invokeExact(parser, instance, value);
+                }
+                return true;
+            } catch (InvalidFieldValueException e) {
+                invalidValue(mapper, name, failed(listener, type, name, e));
+                return false;
+            } catch (InvalidFieldException e) {
+                throw failed(listener, type, name, e);
+            } catch (RuntimeException e) {
+                throw failed(listener, type, name, e);
+            } catch (Error e) {
+                throw e;
+            } catch (Exception e) {
+                throw cannotAssign(name, failed(listener, type, name, e));
+            } catch (Throwable t) {
+                throw cannotAssign(name, t);
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.rayjars.fieldmapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Maps a .properties file to beans, and maps it again when it changes.
+ * <br/>
+ * A reload parses the file, compares the new {@link Param} tree with the previous one, and assigns only the fields
+ * mapped from the parameters which were added, removed or modified, with the same semantics as
+ * {@link FieldValueMapper#mapParamToObject(Param, Object)}: the field of a removed parameter is assigned its
+ * {@link Field#defaultValue()}, it is left unchanged when it has none, and a required one fails.
+ * <br/>
+ * Each bean keeps the parameters last assigned to it: a value which cannot be assigned to a bean is retried for that
+ * bean at the next reload, the other beans are not mapped again.
+ * <br/>
+ * {@link #start()} watches the file with a {@link WatchService}, the reloads then happen in a daemon thread.
+ * {@link #reload()} can also be called directly.
+ */
+public class ConfigReloader implements Closeable {
+
+    private final Logger logger = LoggerFactory.getLogger(ConfigReloader.class);
+
+    private final FieldValueMapper mapper;
+
+    private final File file;
+
+    private final List<Binding> bindings = new CopyOnWriteArrayList<>();
+
+    private final List<ReloadListener> listeners = new CopyOnWriteArrayList<>();
+
+    private Param parameters;
+
+    private WatchService watchService;
+
+    private Thread watcher;
+
+    public ConfigReloader(FieldValueMapper mapper, File file) throws IOException {
+        this.mapper = mapper;
+        this.file = file.getAbsoluteFile();
+        this.parameters = new Param("root").load(this.file);
+    }
+
+    /**
+     * @return the parameters of the last successful load. A parameter whose value could not be assigned to a bean
+     * keeps its previous value, so that the next reload reports it again.
+     */
+    public synchronized Param getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Maps the current parameters to the bean, which is mapped again at each reload.
+     */
+    public synchronized ConfigReloader bind(Object bean) throws InvalidFieldException {
+        mapper.mapParamToObject(parameters, bean);
+        // the plan of a proxy is the plan of its target class, as for the mapping
+        MappingPlan plan = mapper.getConverterRegistry().plan(MappingPlan.targetClass(bean.getClass()));
+        bindings.add(new Binding(bean, plan, parameters));
+        return this;
+    }
+
+    public ConfigReloader addListener(ReloadListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Parses the file and assigns the fields of the changed parameters.
+     *
+     * @return the names of the changed parameters
+     */
+    public synchronized Set<String> reload() {
+        Param reloaded;
+        try {
+            reloaded = new Param("root").load(file);
+        } catch (IOException | RuntimeException e) {
+            fireFailed(e);
+            return new LinkedHashSet<>();
+        }
+
+        Set<String> changed = changedChildren(parameters, reloaded);
+        if (!changed.isEmpty()) {
+            logger.debug("{} reloaded, changed parameters {}", file, changed);
+        }
+
+        // each parameter is assigned on its own, a failure does not skip the others nor the other beans
+        Set<String> failed = new LinkedHashSet<>();
+        for (Binding binding : bindings) {
+            // a bean without failure was mapped from the same parameters
+            Set<String> bindingChanged = binding.applied == parameters ? changed : changedChildren(binding.applied, reloaded);
+            Set<String> bindingFailed = new LinkedHashSet<>();
+            Set<String> remapped = new LinkedHashSet<>();
+            for (String name : bindingChanged) {
+                try {
+                    if (binding.remap(name, reloaded)) {
+                        remapped.add(name);
+                    }
+                } catch (InvalidFieldException | RuntimeException e) {
+                    bindingFailed.add(name);
+                    fireFailed(e);
+                }
+            }
+            binding.applied = bindingFailed.isEmpty() ? reloaded : baseline(binding.applied, reloaded, bindingFailed);
+            failed.addAll(bindingFailed);
+
+            if (!remapped.isEmpty()) {
+                for (ReloadListener listener : listeners) {
+                    listener.reloaded(binding.bean, remapped);
+                }
+            }
+        }
+
+        parameters = failed.isEmpty() ? reloaded : baseline(parameters, reloaded, failed);
+        return changed;
+    }
+
+    /**
+     * @return the reloaded parameters, with the previous param of each failed name, so the next reload retries it
+     */
+    private static Param baseline(Param previous, Param reloaded, Set<String> failed) {
+        Param baseline = new Param(reloaded.getName(), reloaded.getValue());
+        for (Param child : reloaded.getChilds()) {
+            if (!failed.contains(child.getName())) {
+                baseline.addChild(child);
+            }
+        }
+        for (String name : failed) {
+            Param child = previous.getChild(name);
+            if (child != null) {
+                baseline.addChild(child);
+            }
+        }
+        return baseline;
+    }
+
+    /**
+     * @return the names of the children added, removed or different
+     */
+    static Set<String> changedChildren(Param previous, Param current) {
+        Set<String> changed = new LinkedHashSet<>();
+
+        for (Param child : current.getChilds()) {
+            if (!same(previous.getChild(child.getName()), child)) {
+                changed.add(child.getName());
+            }
+        }
+        for (Param child : previous.getChilds()) {
+            if (current.getChild(child.getName()) == null) {
+                changed.add(child.getName());
+            }
+        }
+        return changed;
+    }
+
+    private static boolean same(Param previous, Param current) {
+        if (previous == null || !equals(previous.getValue(), current.getValue())) {
+            return false;
+        }
+        List<Param> previousChildren = previous.getChilds();
+        List<Param> currentChildren = current.getChilds();
+        if (previousChildren.size() != currentChildren.size()) {
+            return false;
+        }
+        for (int i = 0; i < currentChildren.size(); i++) {
+            Param previousChild = previousChildren.get(i);
+            Param currentChild = currentChildren.get(i);
+            if (!equals(previousChild.getName(), currentChild.getName()) || !same(previousChild, currentChild)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equals(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * Watches the file in a daemon thread, which reloads it when it is modified.
+     */
+    public synchronized ConfigReloader start() throws IOException {
+        if (watcher != null) {
+            return this;
+        }
+        final Path directory = file.getParentFile().toPath();
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        final WatchService service = watchService;
+        watcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watch(service);
+            }
+        }, "fieldmapper-reloader-" + file.getName());
+        watcher.setDaemon(true);
+        watcher.start();
+        return this;
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean modified = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // events were lost, the file is compared with the parameters of each bean anyway
+                        modified = true;
+                    } else if (event.context() instanceof Path && ((Path) event.context()).toString().equals(file.getName())) {
+                        modified = true;
+                    }
+                }
+                if (modified) {
+                    reload();
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    /**
+     * Stops watching the file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watcher.interrupt();
+            watchService = null;
+            watcher = null;
+        }
+    }
+
+    private void fireFailed(Exception e) {
+        logger.warn("Cannot reload " + file, e);
+        for (ReloadListener listener : listeners) {
+            listener.reloadFailed(file, e);
+        }
+    }
+
+    /**
+     * A bound bean, its fields by parameter name, and the parameters last assigned to it.
+     */
+    private final class Binding {
+        private final Object bean;
+        private final Map<String, List<FieldMapping>> fields = new HashMap<>();
+
+        // a failed parameter keeps its previous value, so the next reload assigns it again
+        private Param applied;
+
+        private Binding(Object bean, MappingPlan plan, Param applied) {
+            this.bean = bean;
+            this.applied = applied;
+            for (FieldMapping field : plan.getFields()) {
+                List<FieldMapping> named = fields.get(field.getName());
+                if (named == null) {
+                    named = new ArrayList<>(1);
+                    fields.put(field.getName(), named);
+                }
+                named.add(field);
+            }
+        }
+
+        /**
+         * @return true if a field of the bean is mapped from the parameter
+         */
+        private boolean remap(String name, Param reloaded) throws InvalidFieldException {
+            List<FieldMapping> named = fields.get(name);
+            if (named == null) {
+                return false;
+            }
+            for (FieldMapping field : named) {
+                Object value = TypeMapper.value(reloaded, field.getName(), field.getDefaultValue(), field.isRequired());
+                if (value != null) {
+                    mapper.assignValueWrapException(field, bean, value);
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.rayjars.fieldmapper;
+
+import java.awt.*;
+import java.io.File;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bounded cache of converted values, keyed by the converted type and the raw string, see {@link CachingParamFieldParser}.
+ * <br/>
+ * Only immutable types are cached, a cached instance is shared by every object mapped from the same string:
+ * a {@link java.util.Date} is mutable and is never cached.
+ * <br/>
+ * The entries are spread over segments locked independently, each segment evicts its own entries once it holds its
+ * share of the maximum size, the least recently used or the oldest first. The shares add up to the maximum size, so
+ * the cache never holds more entries, but a segment may evict while others still have room.
+ */
+public class ConversionCache {
+
+    public enum Eviction {
+        /**
+         * Evicts the entry least recently read or written.
+         */
+        LRU,
+        /**
+         * Evicts the entry written first, a read does not reorder the entries.
+         */
+        FIFO
+    }
+
+    private static final int SEGMENTS = 16;
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<Class<?>>(Arrays.asList(
+            String.class, Long.class, Integer.class, Float.class, Double.class, Boolean.class,
+            BigDecimal.class, BigInteger.class, UUID.class, File.class, URL.class, Color.class, Font.class));
+
+    private final Segment[] segments;
+
+    private final int maximumSize;
+
+    public ConversionCache(int maximumSize) {
+        this(maximumSize, Eviction.LRU);
+    }
+
+    public ConversionCache(int maximumSize, Eviction eviction) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+
+        // at most one segment per entry, the remainder of the division goes to the first segments
+        int segmentCount = Math.min(SEGMENTS, Integer.highestOneBit(maximumSize));
+        int segmentSize = maximumSize / segmentCount;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int capacity = i < maximumSize % segmentCount ? segmentSize + 1 : segmentSize;
+            segments[i] = new Segment(capacity, eviction == Eviction.LRU);
+        }
+    }
+
+    /**
+     * @return true if the values of the type can be cached
+     */
+    public static boolean isCacheable(Class<?> type) {
+        return IMMUTABLE_TYPES.contains(type);
+    }
+
+    /**
+     * @return the cached value, null if there is none or the raw string is null
+     */
+    public <T> T get(Class<T> type, String raw) {
+        if (raw == null) {
+            return null;
+        }
+        Key key = new Key(type, raw);
+        return type.cast(segment(key).lookup(key));
+    }
+
+    /**
+     * Caches the value converted from the raw string, nothing is cached for a null string.
+     *
+     * @throws IllegalArgumentException if the type is not immutable, see {@link #isCacheable(Class)}
+     */
+    public <T> void put(Class<T> type, String raw, T value) {
+        if (!isCacheable(type)) {
+            throw new IllegalArgumentException("The values of " + type.getName() + " are not immutable, they cannot be cached");
+        }
+        if (raw != null) {
+            Key key = new Key(type, raw);
+            segment(key).store(key, value);
+        }
+    }
+
+    private Segment segment(Key key) {
+        // the hash is mixed so that the few segments of a small cache are all used, the map of the segment
+        // selects its bucket from the low bits of the hash itself
+        int hash = key.hash * 0x9E3779B9;
+        return segments[(hash >>> 16) & (segments.length - 1)];
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        long hits = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                hits += segment.hits;
+            }
+        }
+        return hits;
+    }
+
+    public long getMissCount() {
+        long misses = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                misses += segment.misses;
+            }
+        }
+        return misses;
+    }
+
+    public long getEvictionCount() {
+        long evictions = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                evictions += segment.evictions;
+            }
+        }
+        return evictions;
+    }
+
+    /**
+     * @return the ratio of the reads which found a value, 0 if there was no read
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long reads = hits + getMissCount();
+        return reads == 0 ? 0 : (double) hits / reads;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ConversionCache{size=" + size() + ", maximumSize=" + maximumSize + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "}";
+    }
+
+    private static final class Key {
+        private final Class<?> type;
+        private final String raw;
+        private final int hash;
+
+        private Key(Class<?> type, String raw) {
+            this.type = type;
+            this.raw = raw;
+            this.hash = 31 * type.hashCode() + raw.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return type == key.type && raw.equals(key.raw);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Segment extends LinkedHashMap<Key, Object> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        private Segment(int capacity, boolean accessOrder) {
+            super(16, 0.75f, accessOrder);
+            this.capacity = capacity;
+        }
+
+        private synchronized Object lookup(Key key) {
+            Object value = get(key);
+            if (value == null) {
+                misses++;
+            } else {
+                hits++;
+            }
+            return value;
+        }
+
+        private synchronized void store(Key key, Object value) {
+            put(key, value);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+            if (size() > capacity) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.rayjars.fieldmapper;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converters by field type, looked up by the exact class when the {@link MappingPlan} of a class is built.
+ * <br/>
+ * The built-in types are registered by default, and any type can be added or replaced with
+ * {@link #register(Class, TypeConverter)}. The plans are cached per registry, registering a converter discards them.
+ * Field types without an exact converter (Object, Collection...) fall back to the first built-in type they can hold.
+ * The arrays, lists and maps declared with their element type convert each element with the converter of its type.
+ * <br/>
+ * The {@link TypeFormatter} of each type, used to write the objects back to params, is registered the same way.
+ */
+public class ConverterRegistry {
+
+    /**
+     * Registry of the mappers without their own converters, it is never modified.
+     */
+    static final ConverterRegistry DEFAULT = new ConverterRegistry();
+
+    // listener of the mapper resolving a plan, the plans are computed in its thread
+    private static final ThreadLocal<MappingListener> BUILD_LISTENER = new ThreadLocal<>();
+
+    private volatile Map<Class<?>, TypeConverter<?>> converters;
+
+    private volatile Map<Class<?>, TypeFormatter<?>> formatters;
+
+    private volatile ClassValue<MappingPlan> plans = newPlans();
+
+    // a converter replaces the one of a built-in type, or the built-in resolution of a type like Object
+    private volatile boolean builtinReplaced;
+
+    public ConverterRegistry() {
+        Map<Class<?>, TypeConverter<?>> builtin = new HashMap<>();
+        BuiltinConverters.registerAll(builtin);
+        this.converters = builtin;
+
+        Map<Class<?>, TypeFormatter<?>> builtinFormatters = new HashMap<>();
+        BuiltinFormatters.registerAll(builtinFormatters);
+        this.formatters = builtinFormatters;
+    }
+
+    public ConverterRegistry(ConverterRegistry registry) {
+        this.converters = new HashMap<>(registry.converters);
+        this.formatters = new HashMap<>(registry.formatters);
+        this.builtinReplaced = registry.builtinReplaced;
+    }
+
+    /**
+     * Registers the converter of a type, it replaces any converter of the same type.
+     * The primitive and the wrapper types are registered separately.
+     */
+    public synchronized <T> ConverterRegistry register(Class<T> type, TypeConverter<? extends T> converter) {
+        if (this == DEFAULT) {
+            throw new UnsupportedOperationException("The default converters cannot be modified");
+        }
+
+        // copy on write, the plans being built keep a consistent view
+        Map<Class<?>, TypeConverter<?>> copy = new HashMap<>(converters);
+        copy.put(type, converter);
+        this.converters = copy;
+        this.plans = newPlans();
+        if (DEFAULT.get(type) != null || BuiltinConverters.assignableFrom(type) != null) {
+            this.builtinReplaced = true;
+        }
+        return this;
+    }
+
+    /**
+     * Registers the formatter of a type, the inverse of its converter, see {@link FieldValueMapper#mapObjectToParam(Object)}.
+     * It replaces any formatter of the same type.
+     */
+    public synchronized <T> ConverterRegistry registerFormatter(Class<T> type, TypeFormatter<? super T> formatter) {
+        if (this == DEFAULT) {
+            throw new UnsupportedOperationException("The default formatters cannot be modified");
+        }
+
+        Map<Class<?>, TypeFormatter<?>> copy = new HashMap<>(formatters);
+        copy.put(type, formatter);
+        this.formatters = copy;
+        this.plans = newPlans();
+        return this;
+    }
+
+    /**
+     * @return the formatter registered for exactly this type, null if there is none
+     */
+    public TypeFormatter<?> getFormatter(Class<?> type) {
+        return formatters.get(type);
+    }
+
+    /**
+     * @return the converter registered for exactly this type, null if there is none
+     */
+    public TypeConverter<?> get(Class<?> type) {
+        return converters.get(type);
+    }
+
+    /**
+     * @return true if a converter has been registered for a built-in type, the mappers generated by the
+     * <code>fieldmapper-processor</code>, which call the parser for these types, are not used with this registry
+     */
+    boolean isBuiltinReplaced() {
+        return builtinReplaced;
+    }
+
+    /**
+     * @return the converter of a field type, null if the type is not supported
+     */
+    public TypeConverter<?> find(Class<?> fieldType) {
+        TypeConverter<?> converter = converters.get(fieldType);
+        return converter != null ? converter : BuiltinConverters.assignableFrom(fieldType);
+    }
+
+    /**
+     * @param genericType the generic type of the field, the arrays, lists and maps are converted to their element type
+     * @return the converter of a field, null if the type is not supported
+     */
+    TypeConverter<?> find(Class<?> fieldType, Type genericType) {
+        return BuiltinConverters.typed(find(fieldType), fieldType, genericType, this);
+    }
+
+    MappingPlan plan(Class<?> type) {
+        return plans.get(type);
+    }
+
+    /**
+     * @param listener notified of the plans built by the call, the nested ones included
+     */
+    MappingPlan plan(Class<?> type, MappingListener listener) {
+        MappingListener previous = BUILD_LISTENER.get();
+        BUILD_LISTENER.set(listener);
+        try {
+            return plans.get(type);
+        } finally {
+            if (previous == null) {
+                BUILD_LISTENER.remove();
+            } else {
+                BUILD_LISTENER.set(previous);
+            }
+        }
+    }
+
+    private ClassValue<MappingPlan> newPlans() {
+        return new ClassValue<MappingPlan>() {
+            @Override
+            protected MappingPlan computeValue(Class<?> type) {
+                MappingListener listener = BUILD_LISTENER.get();
+                if (listener == null) {
+                    return new MappingPlan(type, ConverterRegistry.this);
+                }
+
+                long start = System.nanoTime();
+                MappingPlan plan = new MappingPlan(type, ConverterRegistry.this);
+                listener.planBuilt(type, System.nanoTime() - start);
+                return plan;
+            }
+        };
+    }
+}
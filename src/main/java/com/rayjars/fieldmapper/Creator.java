@@ -0,0 +1,13 @@
+package com.rayjars.fieldmapper;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks the constructor, or the static factory method, {@link FieldValueMapper#create(Param, Class)} calls to create
+ * an instance. Each parameter is bound by its {@link Field} annotation, whose name is mandatory, so the fields
+ * of the class can be final.
+ */
+@Target({ElementType.CONSTRUCTOR, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Creator {
+}
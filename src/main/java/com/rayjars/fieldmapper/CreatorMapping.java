@@ -0,0 +1,156 @@
+package com.rayjars.fieldmapper;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+
+/**
+ * Resolved {@link Creator} of a class: the constructor or static factory, and the mapping of each of its parameters.
+ * It is resolved once with the {@link MappingPlan} of the class, the parameters are converted with the same
+ * converters as the fields.
+ */
+final class CreatorMapping {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Class<?> type;
+
+    private final Parameter[] parameters;
+
+    // (Object[])Object, spreads the converted parameters
+    private final MethodHandle creator;
+
+    private CreatorMapping(Class<?> type, Parameter[] parameters, MethodHandle creator) {
+        this.type = type;
+        this.parameters = parameters;
+        this.creator = creator.asType(MethodType.genericMethodType(parameters.length)).asSpreader(Object[].class, parameters.length);
+    }
+
+    /**
+     * @return the creator of the type, null if none is annotated
+     * @throws IllegalArgumentException if the creator is not valid
+     */
+    static CreatorMapping of(Class<?> type, ConverterRegistry converters) {
+        CreatorMapping mapping = null;
+
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            if (constructor.isAnnotationPresent(Creator.class)) {
+                mapping = single(mapping, type, constructor.getParameterTypes(), constructor.getGenericParameterTypes(),
+                        constructor.getParameterAnnotations(), unreflect(constructor), converters);
+            }
+        }
+        for (Method method : type.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(Creator.class)) {
+                if (!Modifier.isStatic(method.getModifiers()) || !type.isAssignableFrom(method.getReturnType())) {
+                    throw new IllegalArgumentException("The creator " + method + " must be static and return " + type.getName());
+                }
+                mapping = single(mapping, type, method.getParameterTypes(), method.getGenericParameterTypes(),
+                        method.getParameterAnnotations(), unreflect(method), converters);
+            }
+        }
+        return mapping;
+    }
+
+    private static CreatorMapping single(CreatorMapping previous, Class<?> type, Class<?>[] parameterTypes, Type[] genericTypes,
+                                         Annotation[][] annotations, MethodHandle handle, ConverterRegistry converters) {
+        if (previous != null) {
+            throw new IllegalArgumentException("Only one creator can be annotated in " + type.getName());
+        }
+        // the annotations of the synthetic parameters (outer instance of an inner class) are missing
+        if (annotations.length != parameterTypes.length) {
+            throw new IllegalArgumentException("The creator of the inner class " + type.getName() + " cannot be bound, declare the class static");
+        }
+
+        Parameter[] parameters = new Parameter[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Field annotation = annotation(annotations[i]);
+            if (annotation == null || annotation.name().isEmpty()) {
+                throw new IllegalArgumentException("The parameter " + i + " of the creator of " + type.getName() + " needs a @Field name");
+            }
+
+            TypeConverter<?> converter = converters.find(parameterTypes[i], genericTypes[i]);
+            NestedMapping nested = NestedMapping.of(parameterTypes[i], genericTypes[i], converter, converters);
+            parameters[i] = new Parameter(annotation, parameterTypes[i], nested == null ? converter : null, nested);
+        }
+        return new CreatorMapping(type, parameters, handle);
+    }
+
+    private static Field annotation(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Field) {
+                return (Field) annotation;
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandle unreflect(AccessibleObject creator) {
+        creator.setAccessible(true);
+        try {
+            return creator instanceof Constructor ? LOOKUP.unreflectConstructor((Constructor<?>) creator) : LOOKUP.unreflect((Method) creator);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("The creator " + creator + " is not accessible", e);
+        }
+    }
+
+    /**
+     * Converts the parameters and calls the creator.
+     */
+    Object create(FieldValueMapper mapper, Param parameters) throws InvalidFieldException {
+        Object[] arguments = new Object[this.parameters.length];
+        MappingListener listener = mapper.getMappingListener();
+
+        for (int i = 0; i < arguments.length; i++) {
+            Parameter parameter = this.parameters[i];
+            Object value = TypeMapper.value(listener, type, parameters, parameter.name, parameter.defaultValue, parameter.required);
+
+            Object argument = null;
+            if (value != null) {
+                long start = TypeMapper.started(listener);
+                argument = mapper.convertValue(listener, type, parameter.name, parameter.type, parameter.converter, parameter.nested, value);
+                // an ignored invalid value has been reported as a failure
+                if (argument != null) {
+                    TypeMapper.mapped(listener, type, parameter.name, start);
+                }
+            }
+            arguments[i] = argument != null ? argument : parameter.missing;
+        }
+
+        try {
+            return creator.invokeExact(arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvalidFieldException("Cannot create " + type.getName() + ". Cause by " + t.getMessage(), t);
+        }
+    }
+
+    private static final class Parameter {
+        private final String name;
+        private final boolean required;
+        private final String defaultValue;
+        private final Class<?> type;
+        private final TypeConverter<?> converter;
+        private final NestedMapping nested;
+
+        // passed when there is no value: null, or the zero of a primitive type
+        private final Object missing;
+
+        private Parameter(Field annotation, Class<?> type, TypeConverter<?> converter, NestedMapping nested) {
+            this.name = annotation.name();
+            this.required = annotation.required();
+            this.defaultValue = annotation.defaultValue().isEmpty() ? null : annotation.defaultValue();
+            this.type = type;
+            this.converter = converter;
+            this.nested = nested;
+            this.missing = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+        }
+    }
+}
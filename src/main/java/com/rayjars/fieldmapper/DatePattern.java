@@ -0,0 +1,79 @@
+package com.rayjars.fieldmapper;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Date pattern compiled once and shared by all the parsers.
+ * <br/>
+ * A {@link SimpleDateFormat} is not thread safe, so each thread parses with its own copy of the compiled format.
+ * The copy is set to the default time zone of the moment on each use, as a format built at that moment would be.
+ * A value which does not match is reported by a null date rather than an exception.
+ * <br/>
+ * The built-in patterns are held in constants; a pattern supplied by a caller is parsed with a format of its own,
+ * see {@link #parse(SimpleDateFormat, String, ParsePosition)}.
+ */
+final class DatePattern {
+
+    private final String pattern;
+
+    private final ThreadLocal<SimpleDateFormat> format = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            return new SimpleDateFormat(pattern);
+        }
+    };
+
+    private DatePattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    static DatePattern of(String pattern) {
+        return new DatePattern(pattern);
+    }
+
+    static DatePattern[] of(String... patterns) {
+        DatePattern[] datePatterns = new DatePattern[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            datePatterns[i] = of(patterns[i]);
+        }
+        return datePatterns;
+    }
+
+    String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Parses the beginning of the value, as {@link java.text.DateFormat#parse(String)}.
+     *
+     * @param position reset to the start of the value, holds the error index when the value does not match
+     * @return the date, or null if the value does not match the pattern
+     */
+    Date parse(String value, ParsePosition position) {
+        return parse(format(), value, position);
+    }
+
+    String format(Date date) {
+        return format().format(date);
+    }
+
+    /**
+     * Parses the beginning of the value with a format owned by the caller.
+     *
+     * @see #parse(String, ParsePosition)
+     */
+    static Date parse(SimpleDateFormat format, String value, ParsePosition position) {
+        position.setIndex(0);
+        position.setErrorIndex(-1);
+        return format.parse(value, position);
+    }
+
+    private SimpleDateFormat format() {
+        SimpleDateFormat threadFormat = format.get();
+        threadFormat.setTimeZone(TimeZone.getDefault());
+        return threadFormat;
+    }
+}
@@ -0,0 +1,570 @@
+package com.rayjars.fieldmapper;
+
+import java.io.File;
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@link Param} over the binary format of {@link ParamCodec}, see {@link ParamCodec#view(ByteBuffer)}.
+ * <br/>
+ * Creating a node reads its header only. The name and the value are decoded at the first {@link #getName()} and
+ * {@link #getValue()}, and the children at the first access: their offsets are found by skipping their subtrees, then
+ * each child is created when it is read. The names looked up are compared with the bytes of the dictionary, so
+ * {@link #getChild(String)} decodes nothing.
+ * The first lookup scans the dictionary and the children, the following ones index them: a hash table of the names,
+ * and the offsets of the children.
+ * Above {@link #INDEX_THRESHOLD} children, {@link #getChild(String)} binary searches the children sorted by name index
+ * rather than scanning them. The buffer is only read with absolute gets, it is shared by the threads and must not be
+ * modified while it is viewed.
+ */
+final class EncodedParam extends Param {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final transient Encoding encoding;
+
+    private final transient int offset;
+
+    private final transient int nameIndex;
+
+    // 1 + the length of the value in bytes, 0 for a null value
+    private final transient int valueLength;
+    private final transient int valueOffset;
+
+    private final transient int childCount;
+    private final transient int childrenOffset;
+
+    private transient volatile Children children;
+
+    // the child found by the first lookup, which scans the children rather than indexing them
+    private transient volatile boolean looked;
+    private transient volatile EncodedParam firstChild;
+
+    private EncodedParam(Encoding encoding, int offset) {
+        super((String) null);
+        this.encoding = encoding;
+        this.offset = offset;
+
+        ByteBuffer buffer = encoding.buffer;
+        long varint = varintAt(buffer, offset);
+        this.nameIndex = encoding.checkName(value(varint));
+        int position = next(varint);
+
+        varint = varintAt(buffer, position);
+        this.valueLength = value(varint);
+        this.valueOffset = next(varint);
+        position = valueLength == 0 ? valueOffset : valueOffset + valueLength - 1;
+
+        varint = varintAt(buffer, position);
+        this.childCount = value(varint);
+        // the length of the children follows their count
+        this.childrenOffset = childCount == 0 ? next(varint) : next(varintAt(buffer, next(varint)));
+    }
+
+    /**
+     * @return the root of the tree encoded at the position of the buffer, the position is not moved
+     */
+    static EncodedParam of(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        ParamCodec.readVersion(view);
+
+        // the names are decoded when they are read
+        int[] nameOffsets = new int[ParamCodec.readCount(view, "name") + 1];
+        int[] nameLengths = new int[nameOffsets.length];
+        for (int i = 1; i < nameOffsets.length; i++) {
+            nameLengths[i] = ParamCodec.readVarint(view);
+            nameOffsets[i] = view.position();
+            view.position(view.position() + nameLengths[i]);
+        }
+        return new EncodedParam(new Encoding(buffer, nameOffsets, nameLengths), view.position());
+    }
+
+    @Override
+    public String getName() {
+        String decoded = name;
+        if (decoded == null && nameIndex != 0) {
+            decoded = encoding.name(nameIndex);
+            name = decoded;
+        }
+        return decoded;
+    }
+
+    @Override
+    public String getValue() {
+        String decoded = value;
+        if (decoded == null && valueLength != 0) {
+            decoded = encoding.string(valueOffset, valueLength - 1);
+            value = decoded;
+        }
+        return decoded;
+    }
+
+    @Override
+    public Param getChild(String name) {
+        if (childCount == 0) {
+            return null;
+        }
+        int index = name == null ? 0 : encoding.nameIndex(name);
+        if (index < 0) {
+            return null;
+        }
+
+        if (children == null && !looked) {
+            // a view read for a single value does not pay for the index of the children
+            looked = true;
+            EncodedParam child = scan(index);
+            firstChild = child;
+            return child;
+        }
+
+        Children children = children();
+        int position = children.find(index);
+        return position < 0 ? null : children.child(position);
+    }
+
+    /**
+     * @return the last child with the name, found by skipping the subtrees, or null
+     */
+    private EncodedParam scan(int index) {
+        ByteBuffer buffer = encoding.buffer;
+        int found = -1;
+        int position = childrenOffset;
+        for (int i = 0; i < childCount; i++) {
+            if (value(varintAt(buffer, position)) == index) {
+                found = position;
+            }
+            position = skip(buffer, position);
+        }
+        return found < 0 ? null : new EncodedParam(encoding, found);
+    }
+
+    @Override
+    public List<Param> getChilds() {
+        if (childCount == 0) {
+            return Collections.emptyList();
+        }
+        return new ChildList(children());
+    }
+
+    @Override
+    public Boolean containsNoChilds() {
+        return childCount == 0;
+    }
+
+    private Children children() {
+        Children index = children;
+        if (index == null) {
+            // a concurrent first access may index twice, both indexes are equivalent
+            index = new Children(encoding, childrenOffset, childCount, firstChild);
+            children = index;
+        }
+        return index;
+    }
+
+    // ----------------------------------------------------------------------
+    // Read-only
+    // ----------------------------------------------------------------------
+
+    @Override
+    public Param setName(String name) {
+        throw readOnly();
+    }
+
+    @Override
+    public Param setValue(String value) {
+        throw readOnly();
+    }
+
+    @Override
+    public Param putChild(String name, String value) {
+        throw readOnly();
+    }
+
+    @Override
+    public Param addChild(String name, String value) {
+        throw readOnly();
+    }
+
+    @Override
+    public Param addChild(Param child) {
+        throw readOnly();
+    }
+
+    @Override
+    public Param load(Properties properties) {
+        throw readOnly();
+    }
+
+    @Override
+    public Param load(File file) {
+        throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("The encoded params are read-only");
+    }
+
+    /**
+     * Serialized as the decoded tree, the buffer is not serializable.
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        return copy(this);
+    }
+
+    private static Param copy(Param param) {
+        Param copy = new Param(param.getName(), param.getValue());
+        for (Param child : param.getChilds()) {
+            copy.addChild(copy(child));
+        }
+        return copy;
+    }
+
+    // ----------------------------------------------------------------------
+    // Buffer reading
+    // ----------------------------------------------------------------------
+
+    /**
+     * @return the value of the varint in the high bits, the offset following it in the low bits
+     */
+    private static long varintAt(ByteBuffer buffer, int offset) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get(offset++);
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                if (value < 0) {
+                    break;
+                }
+                return ((long) value << 32) | offset;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in the encoded Param");
+    }
+
+    private static int value(long varint) {
+        return (int) (varint >>> 32);
+    }
+
+    private static int next(long varint) {
+        return (int) varint;
+    }
+
+    /**
+     * @return the offset following the node
+     */
+    private static int skip(ByteBuffer buffer, int offset) {
+        int position = next(varintAt(buffer, offset));
+
+        long varint = varintAt(buffer, position);
+        position = next(varint) + Math.max(0, value(varint) - 1);
+
+        varint = varintAt(buffer, position);
+        if (value(varint) == 0) {
+            return next(varint);
+        }
+        varint = varintAt(buffer, next(varint));
+        return next(varint) + value(varint);
+    }
+
+    /**
+     * The buffer and its dictionary, shared by all the nodes of a tree.
+     */
+    private static final class Encoding {
+        private final ByteBuffer buffer;
+        private final int[] nameOffsets;
+        private final int[] nameLengths;
+
+        private final String[] names;
+
+        // hash and index of the names by open addressing, 0 marks a free slot, built at the second lookup
+        private volatile int[] slots;
+        private volatile boolean looked;
+
+        private Encoding(ByteBuffer buffer, int[] nameOffsets, int[] nameLengths) {
+            this.buffer = buffer;
+            this.nameOffsets = nameOffsets;
+            this.nameLengths = nameLengths;
+            this.names = new String[nameOffsets.length];
+        }
+
+        private int checkName(int index) {
+            if (index >= names.length) {
+                throw new IllegalArgumentException("Malformed name index " + index + " in the encoded Param");
+            }
+            return index;
+        }
+
+        private String name(int index) {
+            String name = names[index];
+            if (name == null) {
+                name = string(nameOffsets[index], nameLengths[index]);
+                names[index] = name;
+            }
+            return name;
+        }
+
+        /**
+         * @return the index of the name in the dictionary, -1 if the dictionary does not hold it
+         */
+        private int nameIndex(String name) {
+            int[] table = slots;
+            if (table == null) {
+                if (!looked) {
+                    // a view read for a single value does not pay for the table
+                    looked = true;
+                    return scan(name);
+                }
+                table = table();
+                slots = table;
+            }
+
+            int hash = hash(name);
+            int mask = table.length / 2 - 1;
+            for (int slot = spread(hash) & mask; table[2 * slot + 1] != 0; slot = (slot + 1) & mask) {
+                int index = table[2 * slot + 1];
+                if (table[2 * slot] == hash && utf8Equals(name, nameOffsets[index], nameLengths[index])) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        private int scan(String name) {
+            for (int i = 1; i < names.length; i++) {
+                if (utf8Equals(name, nameOffsets[i], nameLengths[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return the hash of each name followed by its index, in at least twice as many slots as names
+         */
+        private int[] table() {
+            int capacity = Integer.highestOneBit(2 * names.length - 1) << 1;
+            int mask = capacity - 1;
+            int[] table = new int[2 * capacity];
+            for (int i = 1; i < names.length; i++) {
+                int hash = hash(nameOffsets[i], nameLengths[i]);
+                int slot = spread(hash) & mask;
+                while (table[2 * slot + 1] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[2 * slot] = hash;
+                table[2 * slot + 1] = i;
+            }
+            return table;
+        }
+
+        private int hash(int offset, int length) {
+            int hash = 0;
+            for (int i = offset; i < offset + length; i++) {
+                hash = 31 * hash + (buffer.get(i) & 0xFF);
+            }
+            return hash;
+        }
+
+        /**
+         * Same hash as {@link #hash(int, int)} over the string in UTF-8, without encoding it.
+         */
+        private static int hash(String string) {
+            int hash = 0;
+            for (int i = 0; i < string.length(); ) {
+                int c = string.charAt(i);
+                if (c < 0x80) {
+                    hash = 31 * hash + c;
+                    i++;
+                    continue;
+                }
+                c = codePointAt(string, i);
+                int length = utf8Length(c);
+                for (int k = 0; k < length; k++) {
+                    hash = 31 * hash + (utf8Byte(c, length, k) & 0xFF);
+                }
+                i += Character.charCount(c);
+            }
+            return hash;
+        }
+
+        private static int spread(int hash) {
+            // names differing by their last characters land far apart
+            int spread = hash * 0x9E3779B9;
+            return spread ^ (spread >>> 16);
+        }
+
+        /**
+         * @return true if the bytes are the string in UTF-8, as written by {@link ParamCodec}
+         */
+        private boolean utf8Equals(String string, int offset, int length) {
+            if (length < string.length() || length > string.length() * 3) {
+                return false;
+            }
+            int end = offset + length;
+            for (int i = 0; i < string.length(); ) {
+                int c = string.charAt(i);
+                if (c < 0x80) {
+                    if (offset == end || buffer.get(offset++) != c) {
+                        return false;
+                    }
+                    i++;
+                    continue;
+                }
+                c = codePointAt(string, i);
+                int bytes = utf8Length(c);
+                if (end - offset < bytes) {
+                    return false;
+                }
+                for (int k = 0; k < bytes; k++) {
+                    if (buffer.get(offset++) != utf8Byte(c, bytes, k)) {
+                        return false;
+                    }
+                }
+                i += Character.charCount(c);
+            }
+            return offset == end;
+        }
+
+        /**
+         * @return the code point at the index, '?' for an unpaired surrogate as the UTF-8 encoder writes it
+         */
+        private static int codePointAt(String string, int index) {
+            char c = string.charAt(index);
+            if (Character.isHighSurrogate(c) && index + 1 < string.length()
+                    && Character.isLowSurrogate(string.charAt(index + 1))) {
+                return Character.toCodePoint(c, string.charAt(index + 1));
+            }
+            return Character.isSurrogate(c) ? '?' : c;
+        }
+
+        private static int utf8Length(int codePoint) {
+            if (codePoint < 0x80) {
+                return 1;
+            }
+            if (codePoint < 0x800) {
+                return 2;
+            }
+            return codePoint < 0x10000 ? 3 : 4;
+        }
+
+        private static byte utf8Byte(int codePoint, int length, int index) {
+            if (length == 1) {
+                return (byte) codePoint;
+            }
+            int shift = 6 * (length - 1 - index);
+            if (index == 0) {
+                return (byte) ((0xF00 >> length) | (codePoint >> shift));
+            }
+            return (byte) (0x80 | ((codePoint >> shift) & 0x3F));
+        }
+
+        private String string(int offset, int length) {
+            if (buffer.hasArray()) {
+                return new String(buffer.array(), buffer.arrayOffset() + offset, length, UTF_8);
+            }
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = buffer.get(offset + i);
+            }
+            return new String(bytes, UTF_8);
+        }
+    }
+
+    /**
+     * Offsets and name indexes of the children of a node, and the children created so far.
+     */
+    private static final class Children {
+        private final Encoding encoding;
+        private final int[] offsets;
+        private final int[] nameIndexes;
+
+        // name index in the high bits, position in the low bits, sorted, built above INDEX_THRESHOLD children
+        private final long[] byName;
+
+        private final EncodedParam[] created;
+
+        private Children(Encoding encoding, int offset, int count, EncodedParam found) {
+            this.encoding = encoding;
+            this.offsets = new int[count];
+            this.nameIndexes = new int[count];
+            this.created = new EncodedParam[count];
+
+            for (int i = 0; i < count; i++) {
+                offsets[i] = offset;
+                nameIndexes[i] = value(varintAt(encoding.buffer, offset));
+                if (found != null && found.offset == offset) {
+                    created[i] = found;
+                }
+                offset = skip(encoding.buffer, offset);
+            }
+
+            if (count > INDEX_THRESHOLD) {
+                byName = new long[count];
+                for (int i = 0; i < count; i++) {
+                    byName[i] = ((long) nameIndexes[i] << 32) | i;
+                }
+                Arrays.sort(byName);
+            } else {
+                byName = null;
+            }
+        }
+
+        /**
+         * @return the position of the last child with the name, as {@link Param#getChild(String)}, or -1
+         */
+        private int find(int nameIndex) {
+            if (byName == null) {
+                for (int i = nameIndexes.length - 1; i >= 0; i--) {
+                    if (nameIndexes[i] == nameIndex) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+
+            // the last key of the name is before the insertion point of the next name
+            int insertion = Arrays.binarySearch(byName, (long) (nameIndex + 1) << 32);
+            int last = (insertion < 0 ? -insertion - 1 : insertion) - 1;
+            return last >= 0 && (int) (byName[last] >>> 32) == nameIndex ? (int) byName[last] : -1;
+        }
+
+        private EncodedParam child(int position) {
+            EncodedParam child = created[position];
+            if (child == null) {
+                child = new EncodedParam(encoding, offsets[position]);
+                created[position] = child;
+            }
+            return child;
+        }
+    }
+
+    private static final class ChildList extends AbstractList<Param> implements RandomAccess {
+        private final Children children;
+
+        private ChildList(Children children) {
+            this.children = children;
+        }
+
+        @Override
+        public Param get(int index) {
+            if (index >= children.offsets.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + children.offsets.length);
+            }
+            return children.child(index);
+        }
+
+        @Override
+        public int size() {
+            return children.offsets.length;
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.rayjars.fieldmapper;
 import java.lang.annotation.*;
 
 @Inherited//inherited with proxy CGLIB
-@Target(ElementType.FIELD)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Field {
     String name() default "";
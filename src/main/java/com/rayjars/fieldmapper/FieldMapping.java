@@ -0,0 +1,114 @@
+package com.rayjars.fieldmapper;
+
+/**
+ * Resolved mapping of one annotated field: parameter name, required flag,
+ * default value and conversion are computed once when the plan is built.
+ */
+final class FieldMapping {
+
+    private final java.lang.reflect.Field field;
+    private final String name;
+    private final boolean required;
+    private final String defaultValue;
+    private final TypeConverter<?> converter;
+    private final NestedMapping nested;
+    private final TypeFormatter<?> formatter;
+    private final FieldWriter writer;
+
+    // the primitive type assigned without boxing, null to assign the converted object
+    private final Class<?> primitiveType;
+
+    FieldMapping(java.lang.reflect.Field field, Field annotation, TypeConverter<?> converter, NestedMapping nested, TypeFormatter<?> formatter) {
+        this.field = field;
+        this.name = annotation.name().isEmpty() ? field.getName() : annotation.name();
+        this.required = annotation.required();
+        this.defaultValue = annotation.defaultValue().isEmpty() ? null : annotation.defaultValue();
+        this.converter = converter;
+        this.nested = nested;
+        this.formatter = formatter;
+
+        // accessibility is established once, the field is never restored to its old state
+        field.setAccessible(true);
+        this.writer = FieldWriter.of(field);
+        this.primitiveType = isPrimitiveConverter(field.getType(), converter) ? field.getType() : null;
+    }
+
+    /**
+     * @return true if the converter produces the primitive field type without boxing
+     */
+    static boolean isPrimitiveConverter(Class<?> fieldType, TypeConverter<?> converter) {
+        return (fieldType == int.class && converter instanceof TypeConverter.OfInt)
+                || (fieldType == long.class && converter instanceof TypeConverter.OfLong)
+                || (fieldType == float.class && converter instanceof TypeConverter.OfFloat)
+                || (fieldType == double.class && converter instanceof TypeConverter.OfDouble)
+                || (fieldType == boolean.class && converter instanceof TypeConverter.OfBoolean);
+    }
+
+    public java.lang.reflect.Field getField() {
+        return field;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * @return the converter of the field type, null if the type is not supported or is nested
+     */
+    public TypeConverter<?> getConverter() {
+        return converter;
+    }
+
+    /**
+     * @return the mapping of the annotated objects held by the field, null if the field is converted
+     */
+    public NestedMapping getNested() {
+        return nested;
+    }
+
+    /**
+     * @return the formatter of the field type, null if there is none for the declared type
+     */
+    public TypeFormatter<?> getFormatter() {
+        return formatter;
+    }
+
+    public FieldWriter getWriter() {
+        return writer;
+    }
+
+    public Object get(Object annotatedObject) throws IllegalAccessException {
+        return field.get(annotatedObject);
+    }
+
+    public void set(Object annotatedObject, Object value) throws IllegalAccessException {
+        writer.set(annotatedObject, value);
+    }
+
+    /**
+     * Converts the value and assigns it, a primitive field is parsed and stored without allocation.
+     */
+    public void assign(ParamFieldParser parser, Object annotatedObject, Object value) throws Exception {
+        if (primitiveType == null) {
+            writer.set(annotatedObject, converter.convert(parser, value));
+        } else if (primitiveType == int.class) {
+            writer.setInt(annotatedObject, ((TypeConverter.OfInt) converter).convertInt(parser, value));
+        } else if (primitiveType == long.class) {
+            writer.setLong(annotatedObject, ((TypeConverter.OfLong) converter).convertLong(parser, value));
+        } else if (primitiveType == float.class) {
+            writer.setFloat(annotatedObject, ((TypeConverter.OfFloat) converter).convertFloat(parser, value));
+        } else if (primitiveType == double.class) {
+            writer.setDouble(annotatedObject, ((TypeConverter.OfDouble) converter).convertDouble(parser, value));
+        } else {
+            writer.setBoolean(annotatedObject, ((TypeConverter.OfBoolean) converter).convertBoolean(parser, value));
+        }
+    }
+}
@@ -3,27 +3,45 @@ package com.rayjars.fieldmapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.awt.*;
-import java.io.File;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.text.ParseException;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Properties;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 /**
+ * Maps the {@link Field} annotated fields of objects from {@link Param} or {@link Properties}.
+ * <br/>
+ * A mapper is thread safe and meant to be shared: the fields are made accessible once when the {@link MappingPlan}
+ * of a class is built, the plans are immutable, and mapping an object only reads the configuration of the mapper.
  *
  * @author Regis Leray
  */
 public class FieldValueMapper {
 
-    private ParamFieldParser parser;
+    // chunks of a parallel batch, enough to balance the threads without contention on small batches
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+    private static final int MIN_CHUNK_SIZE = 64;
 
-    private Logger logger = LoggerFactory.getLogger(FieldValueMapper.class);
+    // the configuration is volatile, a mapper configured once is shared by the threads without locking
+    private volatile ParamFieldParser parser;
 
-    private boolean throwExceptionInvalidValueParameter = true;
+    private volatile StringFieldFormatter formatter = new StringFieldFormatter();
+
+    private final Logger logger = LoggerFactory.getLogger(FieldValueMapper.class);
+
+    private volatile boolean throwExceptionInvalidValueParameter = true;
+
+    private volatile ConverterRegistry converters = ConverterRegistry.DEFAULT;
+
+    private volatile boolean compiledMappers;
+
+    private volatile boolean generatedMappers = true;
+
+    private volatile MappingListener listener;
 
     public FieldValueMapper() {
         setParser(new ParamFieldParser());
@@ -33,9 +51,94 @@ public class FieldValueMapper {
         this.parser = parser;
     }
 
+    public ParamFieldParser getParser() {
+        return parser;
+    }
+
+    public void setFormatter(StringFieldFormatter formatter) {
+        this.formatter = formatter;
+    }
+
+    public StringFieldFormatter getFormatter() {
+        return formatter;
+    }
+
+    /**
+     * Registers the converter of a field type for this mapper, see {@link ConverterRegistry#register(Class, TypeConverter)}.
+     * Once a built-in type has its own converter, the mappers generated by the <code>fieldmapper-processor</code>,
+     * which call the parser directly for the built-in types, are no longer used.
+     */
+    public synchronized <T> void registerConverter(Class<T> type, TypeConverter<? extends T> converter) {
+        if (converters == ConverterRegistry.DEFAULT) {
+            converters = new ConverterRegistry();
+        }
+        converters.register(type, converter);
+    }
+
+    /**
+     * Registers the formatter of a field type for this mapper, see {@link ConverterRegistry#registerFormatter(Class, TypeFormatter)}.
+     */
+    public synchronized <T> void registerFormatter(Class<T> type, TypeFormatter<? super T> formatter) {
+        if (converters == ConverterRegistry.DEFAULT) {
+            converters = new ConverterRegistry();
+        }
+        converters.registerFormatter(type, formatter);
+    }
+
+    /**
+     * Shares a registry, and its plans, between mappers.
+     */
+    public void setConverterRegistry(ConverterRegistry converters) {
+        this.converters = converters;
+    }
+
+    public ConverterRegistry getConverterRegistry() {
+        return converters;
+    }
+
+    /**
+     * Opt-in, disabled by default: maps each type with a mapper compiled at its first use, instead of walking the
+     * {@link MappingPlan}. The compiled mapper has the same semantics and the same listener callbacks.
+     * <br/>
+     * It still calls one method handle per field, and is not measured faster than the plan walk by the
+     * <code>MapperBenchmark</code> of <code>fieldmapper-benchmarks</code>: enable it only for the types where a
+     * benchmark shows a gain.
+     */
+    public void setCompiledMappers(boolean compiledMappers) {
+        this.compiledMappers = compiledMappers;
+    }
+
+    public boolean isCompiledMappers() {
+        return compiledMappers;
+    }
+
+    /**
+     * Mappers generated at compile time by the <code>fieldmapper-processor</code> are preferred when they exist,
+     * unless a converter of a built-in type is registered. Enabled by default.
+     */
+    public void setGeneratedMappers(boolean generatedMappers) {
+        this.generatedMappers = generatedMappers;
+    }
+
+    /**
+     * Notifies the listener of the plans built and of each field mapped, null to remove it.
+     * <br/>
+     * The generated and compiled mappers are still used, they make the same callbacks as the {@link MappingPlan} walk.
+     * A {@link TypeMapper} written by hand, or generated by an older <code>fieldmapper-processor</code>, reports
+     * only what it passes to the listener helpers of {@link TypeMapper}.
+     */
+    public void setMappingListener(MappingListener listener) {
+        this.listener = listener;
+    }
+
+    public MappingListener getMappingListener() {
+        return listener;
+    }
 
     private void displayDebug(String msg, Object... args) {
-        logger.debug("{}: {}", Field.class.getSimpleName(), String.format("%s -> %s", (Object[]) args));
+        if (logger.isDebugEnabled()) {
+            logger.debug("{}: {}", Field.class.getSimpleName(), String.format("%s -> %s", (Object[]) args));
+        }
     }
 
     public void mapParamToObject(Properties properties, Object instance) throws InvalidFieldException {
@@ -49,6 +152,9 @@ public class FieldValueMapper {
      * The value of the annotation must match the name of the property in the Properties object parameters.
      * <br/>
      * Supported field types: String, Long, Integer, Double, Float, Boolean and their primitive equivalents.
+     * <br/>
+     * The annotated fields of each class are resolved once, see {@link MappingPlan}, those of its superclasses included.
+     * The instance of a CGLIB, Javassist or Byte Buddy proxy subclass is mapped with the plan of the proxied class.
      *
      * @param parameters
      * @param instance
@@ -57,135 +163,363 @@ public class FieldValueMapper {
     public void mapParamToObject(Param parameters, Object instance) throws InvalidFieldException {
         displayDebug("Mapping %s to object %s", parameters, instance);
 
-        //We need to retreive the target object instance and not the proxy
-        Object unwrapObject = instance; //SimpleReflectionUtils.unwrapProxy(instance);
+        map(planOf(instance), parameters, instance);
+    }
+
+    /**
+     * Writes the annotated fields of the instance to a Param, the inverse of {@link #mapParamToObject(Param, Object)}:
+     * the Param maps back to equal field values.
+     * <br/>
+     * The values are formatted by the {@link TypeFormatter} of their type, see {@link StringFieldFormatter}. The arrays,
+     * lists and maps are written as child params, the nested objects as their subtree. The null fields and the empty
+     * collections are not written.
+     */
+    public Param mapObjectToParam(Object instance) throws InvalidFieldException {
+        displayDebug("Writing object %s to %s", instance, Param.class.getSimpleName());
+
+        ParamWriter writer = new ParamWriter(formatter, converters);
+        return writer.write(planOf(instance), instance, new Param("root"));
+    }
+
+    /**
+     * Writes the annotated fields of the instance to Properties, as {@link #mapObjectToParam(Object)} with the names of
+     * the nested params joined by dots. They map back from the root of their {@link ParamHierarchy}, the Properties
+     * do not keep the order of the elements of a list.
+     */
+    public Properties mapObjectToProperties(Object instance) throws InvalidFieldException {
+        displayDebug("Writing object %s to %s", instance, Properties.class.getSimpleName());
 
-        for (java.lang.reflect.Field field : unwrapObject.getClass().getDeclaredFields()) {
-            FieldObject fieldObject = new FieldObject(unwrapObject, field, parameters);
+        ParamWriter writer = new ParamWriter(formatter, converters);
+        return ParamWriter.toProperties(writer.write(planOf(instance), instance, new Param("root")));
+    }
 
-            if (fieldObject.isAnnotationExist()) {
-                // get value from properties
-                displayDebug("%s -> %s", field.getName(), fieldObject.getValue());
+    public ValidationResult validate(Properties properties, Object instance) {
+        return validate(new Param("root", properties), instance);
+    }
 
-                if(fieldObject.validate()){
-                    assignValueWrapException(fieldObject);
+    /**
+     * Maps the valid values to the instance, as {@link #mapParamToObject(Param, Object)}, and collects an error for
+     * each field which would make it fail, in a single pass. The invalid values are errors unless they are ignored,
+     * see {@link #setThrowExceptionInvalidValueParameter(boolean)}.
+     * <br/>
+     * The failures are recorded as they come, no exception is created for a missing parameter and the conversion
+     * exceptions are not wrapped, so rejecting malformed input is cheap.
+     *
+     * @return the errors of the fields, valid if there is none
+     */
+    public ValidationResult validate(Param parameters, Object instance) {
+        displayDebug("Validating %s to object %s", parameters, instance);
+
+        // allocated at the first error
+        List<ValidationResult.FieldError> errors = null;
+
+        for (FieldMapping fieldMapping : planOf(instance).getFields()) {
+            String name = fieldMapping.getName();
+            Param child = parameters.getChild(name);
+            Object value = child != null ? child : fieldMapping.getDefaultValue();
+
+            Exception cause = null;
+            if (value != null) {
+                try {
+                    assignValueToField(fieldMapping, instance, value);
+                    continue;
+                } catch (InvalidFieldValueException e) {
+                    if (!throwExceptionInvalidValueParameter) {
+                        continue;
+                    }
+                    cause = e;
+                } catch (Exception e) {
+                    cause = e;
                 }
+            } else if (!fieldMapping.isRequired()) {
+                continue;
             }
+
+            if (errors == null) {
+                errors = new ArrayList<>();
+            }
+            errors.add(new ValidationResult.FieldError(name, cause));
         }
+        return errors == null ? ValidationResult.VALID : new ValidationResult(errors);
     }
 
-    private void assignValueWrapException(FieldObject fieldObject) throws InvalidFieldException {
-        try {
-            assignValueToField(fieldObject);
-        } catch (IllegalAccessException | ParseException | MalformedURLException e) {
-            throw new InvalidFieldException("Cannot assign value to the parameter "+ fieldObject.getName()+". Cause by "+e.getMessage(), e);
-        }  catch(InvalidFieldValueException e){
-            if(throwExceptionInvalidValueParameter) {
-                throw new InvalidFieldException("The parameter " + fieldObject.getName() + " is required and cannot assign value. Cause by " + e.getMessage(), e);
+    private MappingPlan plan(Class<?> type) {
+        MappingListener mappingListener = listener;
+        return mappingListener == null ? converters.plan(type) : converters.plan(type, mappingListener);
+    }
+
+    /**
+     * @return the plan of the class of the instance, of the proxied class for the instance of a proxy subclass
+     */
+    private MappingPlan planOf(Object instance) {
+        return plan(MappingPlan.targetClass(instance.getClass()));
+    }
+
+    private void map(MappingPlan plan, Param parameters, Object instance) throws InvalidFieldException {
+        // the type mappers report to the listener themselves
+        TypeMapper<Object> typeMapper = typeMapper(plan);
+        if (typeMapper != null) {
+            typeMapper.map(this, parameters, instance);
+            return;
+        }
+
+        MappingListener mappingListener = listener;
+        if (mappingListener != null) {
+            mapListened(plan, parameters, instance, mappingListener);
+            return;
+        }
+
+        for (FieldMapping fieldMapping : plan.getFields()) {
+            // get value from properties
+            Object value = TypeMapper.value(parameters, fieldMapping.getName(), fieldMapping.getDefaultValue(), fieldMapping.isRequired());
+            displayDebug("%s -> %s", fieldMapping.getField().getName(), value);
+
+            if (value != null) {
+                assignValueWrapException(fieldMapping, instance, value);
             }
         }
     }
 
-    private void assignValueToField(FieldObject fieldObject) throws InvalidFieldException, IllegalAccessException, MalformedURLException, ParseException {
-
-        // enable property access
-        boolean oldAccess = fieldObject.field.isAccessible();
-        fieldObject.field.setAccessible(true);
-        // set value in object
-        Class<?> fieldType = fieldObject.field.getType();
-
-        if (fieldType.equals(String.class) || fieldObject.getValue() == null) {
-            fieldObject.set(parser.parseString(fieldObject.getValue()));
-        } else if (fieldType.isAssignableFrom(Long.class) || fieldType.isAssignableFrom(long.class)) {
-            fieldObject.set(parser.parseLong(fieldObject.getValue()));
-        } else if (fieldType.isAssignableFrom(Integer.class) || fieldType.isAssignableFrom(int.class)) {
-            fieldObject.set(parser.parseInt(fieldObject.getValue()));
-        } else if (fieldType.isAssignableFrom(Float.class) || fieldType.isAssignableFrom(float.class)) {
-            fieldObject.set(parser.parseFloat(fieldObject.getValue()));
-        } else if (fieldType.isAssignableFrom(Double.class) || fieldType.isAssignableFrom(double.class)) {
-            fieldObject.set(parser.parseDouble(fieldObject.getValue()));
-        } else if (fieldType.isAssignableFrom(Boolean.class) || fieldType.isAssignableFrom(boolean.class)) {
-            fieldObject.set(parser.parseBoolean(fieldObject.getValue()));
-        } else if (fieldType.isAssignableFrom(Date.class)) {
-            // "yyyy-MM-dd HH:mm:ss.S a" (a sample date is "2005-10-06 2:22:55.1 PM")
-            //  or "yyyy-MM-dd HH:mm:ssa" (a sample date is "2005-10-06 2:22:55PM")
-            fieldObject.set(parser.parseDate(fieldObject.getValue()));
-        } else if (fieldType.isAssignableFrom(File.class)) {
-            fieldObject.set(parser.parseFile(fieldObject.getValue()));
-        } else if (fieldType.isAssignableFrom(URL.class)) {
-            fieldObject.set(parser.parseUrl(fieldObject.getValue()));
-        } else if (fieldType.isArray()) {
-            fieldObject.set(parser.parseArray(fieldObject.getValue()));
-        }else if (fieldType.isAssignableFrom(List.class)) {
-            fieldObject.set(parser.parseList(fieldObject.getValue()));
-        } else if (fieldType.isAssignableFrom(Map.class)) {
-            fieldObject.set(parser.parseMap(fieldObject.getValue()));
-        } else if (fieldType.isAssignableFrom(Color.class)) {
-            fieldObject.set(parser.parseColor(fieldObject.getValue()));
-        }else if (fieldType.isAssignableFrom(Font.class)) {
-            fieldObject.set(parser.parseFont(fieldObject.getValue()));
-        } else {
-            throw new InvalidFieldException("Type " + fieldType + " not available for property mapping.");
-        }
-
-        // revert write access
-        fieldObject.field.setAccessible(oldAccess);
+    private void mapListened(MappingPlan plan, Param parameters, Object instance, MappingListener listener) throws InvalidFieldException {
+        Class<?> type = plan.getType();
+
+        for (FieldMapping fieldMapping : plan.getFields()) {
+            String name = fieldMapping.getName();
+            Object value = TypeMapper.value(listener, type, parameters, name, fieldMapping.getDefaultValue(), fieldMapping.isRequired());
+            displayDebug("%s -> %s", fieldMapping.getField().getName(), value);
+
+            if (value != null) {
+                long start = TypeMapper.started(listener);
+                try {
+                    assignValueToField(fieldMapping, instance, value);
+                } catch (InvalidFieldValueException e) {
+                    TypeMapper.invalidValue(this, name, TypeMapper.failed(listener, type, name, e));
+                    continue;
+                } catch (InvalidFieldException e) {
+                    throw TypeMapper.failed(listener, type, name, e);
+                } catch (RuntimeException e) {
+                    throw TypeMapper.failed(listener, type, name, e);
+                } catch (Exception e) {
+                    throw TypeMapper.cannotAssign(name, TypeMapper.failed(listener, type, name, e));
+                }
+                TypeMapper.mapped(listener, type, name, start);
+            }
+        }
     }
 
-    public void setThrowExceptionInvalidValueParameter(boolean b) {
-        this.throwExceptionInvalidValueParameter = b;
+    /**
+     * Maps each parameter to a new instance of the factory, in the calling thread.
+     * <br/>
+     * The mapping plan is resolved once for the batch. The failure of one parameter does not stop the batch, it is
+     * reported by its {@link MappingResult}.
+     *
+     * @return the results, in the order of the parameters
+     */
+    public <T> List<MappingResult<T>> mapAll(Iterable<Param> parameters, InstanceFactory<T> factory) {
+        List<Param> params = toList(parameters);
+        MappingResult<T>[] results = newResults(params.size());
+
+        new BatchMapping<>(params, factory, results, 0, params.size()).run();
+        return Arrays.asList(results);
     }
 
+    /**
+     * Same as {@link #mapAll(Iterable, InstanceFactory)}, the parameters are split in chunks mapped by the executor,
+     * for example a {@link java.util.concurrent.ForkJoinPool} or a fixed thread pool.
+     * The mapper must not be reconfigured while the batch runs.
+     *
+     * @return the results, in the order of the parameters
+     * @throws InterruptedException if the calling thread is interrupted while waiting, the chunks not started are cancelled
+     */
+    public <T> List<MappingResult<T>> mapAll(Iterable<Param> parameters, InstanceFactory<T> factory, Executor executor) throws InterruptedException {
+        List<Param> params = toList(parameters);
+        MappingResult<T>[] results = newResults(params.size());
 
-    private class FieldObject {
-        private final Param params;
-        private final java.lang.reflect.Field field;
-        private final Field annotation;
-        private final Object annotatedObject;
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, params.size() / (Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR));
+        List<FutureTask<Void>> chunks = new ArrayList<>();
+        try {
+            for (int from = 0; from < params.size(); from += chunkSize) {
+                FutureTask<Void> chunk = new FutureTask<>(new BatchMapping<>(params, factory, results, from, Math.min(params.size(), from + chunkSize)), null);
+                chunks.add(chunk);
+                executor.execute(chunk);
+            }
+            for (FutureTask<Void> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (ExecutionException e) {
+            // the exceptions of the mapping are in the results, only an error can get there
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            for (FutureTask<Void> chunk : chunks) {
+                chunk.cancel(false);
+            }
+        }
+        return Arrays.asList(results);
+    }
 
-        private FieldObject(Object annotatedObject, java.lang.reflect.Field field, Param params) {
-            this.annotatedObject = annotatedObject;
-            this.field = field;
-            this.params = params;
-            //Need to use annotation provided by spring
-            annotation = field.getAnnotation(Field.class);
+    private static List<Param> toList(Iterable<Param> parameters) {
+        if (parameters instanceof List && parameters instanceof RandomAccess) {
+            return (List<Param>) parameters;
+        }
+        List<Param> params = new ArrayList<>();
+        for (Param param : parameters) {
+            params.add(param);
         }
+        return params;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> MappingResult<T>[] newResults(int size) {
+        return (MappingResult<T>[]) new MappingResult[size];
+    }
 
-        public String getDefaultValue(){
-            return annotation.defaultValue().isEmpty() ? null : annotation.defaultValue();
+    /**
+     * Maps a range of the parameters, the plan of the last mapped type is reused.
+     */
+    private final class BatchMapping<T> implements Runnable {
+        private final List<Param> parameters;
+        private final InstanceFactory<T> factory;
+        private final MappingResult<T>[] results;
+        private final int from;
+        private final int to;
+
+        private MappingPlan plan;
+
+        // class of the last instance, the plan is of its proxied class for a proxy
+        private Class<?> plannedClass;
+
+        private BatchMapping(List<Param> parameters, InstanceFactory<T> factory, MappingResult<T>[] results, int from, int to) {
+            this.parameters = parameters;
+            this.factory = factory;
+            this.results = results;
+            this.from = from;
+            this.to = to;
         }
 
-        public Object getValue() {
-           Param paramValue = params.getChild(getName());
-           return paramValue != null ? paramValue : getDefaultValue() ;
+        @Override
+        public void run() {
+            for (int i = from; i < to; i++) {
+                Param param = parameters.get(i);
+                try {
+                    T instance = factory.newInstance();
+                    if (plan == null || plannedClass != instance.getClass()) {
+                        plan = planOf(instance);
+                        plannedClass = instance.getClass();
+                    }
+                    map(plan, param, instance);
+                    results[i] = new MappingResult<>(param, instance, null);
+                } catch (Exception e) {
+                    results[i] = new MappingResult<>(param, null, e);
+                }
+            }
         }
+    }
 
-        public String getName() {
-            return annotation.name().isEmpty() ? field.getName() : annotation.name();
+    /**
+     * @return the generated or compiled mapper of the type, null to walk the {@link MappingPlan}
+     */
+    @SuppressWarnings("unchecked")
+    private TypeMapper<Object> typeMapper(MappingPlan plan) {
+        TypeMapper<?> typeMapper = generatedMappers && !converters.isBuiltinReplaced() ? plan.getGeneratedMapper() : null;
+
+        if (typeMapper == null && compiledMappers) {
+            typeMapper = plan.getCompiledMapper();
         }
+        return (TypeMapper<Object>) typeMapper;
+    }
+
+    /**
+     * Creates an instance of the type from the parameters: the {@link Creator} of the type is called with the
+     * converted parameters, or the instance created by the constructor without parameters is mapped.
+     * <br/>
+     * With a creator, the fields are not mapped, they can be final.
+     *
+     * @throws IllegalArgumentException if the creator of the type is not valid
+     */
+    public <T> T create(Param parameters, Class<T> type) throws InvalidFieldException {
+        displayDebug("Creating %s from %s", type, parameters);
+
+        return type.cast(create(plan(type), parameters));
+    }
+
+    public <T> T create(Properties properties, Class<T> type) throws InvalidFieldException {
+        return create(new Param("root", properties), type);
+    }
 
-        public Boolean isAnnotationExist(){
-            return annotation != null;
+    /**
+     * Creates an object, nested or not.
+     */
+    Object create(MappingPlan plan, Param parameters) throws InvalidFieldException {
+        CreatorMapping creator = plan.getCreator();
+        if (creator != null) {
+            return creator.create(this, parameters);
         }
 
-        /**
-         * @throws InvalidFieldException if the parameter is required and there is no value provided
-         */
-        public boolean validate() throws InvalidFieldException {
-            if(isRequired() && getValue() == null){
-                throw new InvalidFieldException("The parameter "+getName()+" is required. Cannot be null");
+        Object instance = plan.newInstance();
+        map(plan, parameters, instance);
+        return instance;
+    }
+
+    /**
+     * Converts the value of a creator parameter with the semantics of the fields.
+     *
+     * @param listener notified of the failures, may be null
+     * @return the converted value, null if it is invalid and the invalid values are ignored
+     */
+    Object convertValue(MappingListener listener, Class<?> owner, String name, Class<?> type, TypeConverter<?> converter, NestedMapping nested, Object value) throws InvalidFieldException {
+        try {
+            if (nested != null) {
+                return nested.map(this, value);
+            }
+            if (converter == null) {
+                throw TypeMapper.notAvailable(type);
             }
+            return converter.convert(parser, value);
+        } catch (InvalidFieldValueException e) {
+            TypeMapper.invalidValue(this, name, TypeMapper.failed(listener, owner, name, e));
+            return null;
+        } catch (InvalidFieldException e) {
+            throw TypeMapper.failed(listener, owner, name, e);
+        } catch (RuntimeException e) {
+            throw TypeMapper.failed(listener, owner, name, e);
+        } catch (Exception e) {
+            throw TypeMapper.cannotAssign(name, TypeMapper.failed(listener, owner, name, e));
+        }
+    }
 
-            return getValue() != null;
+    void assignValueWrapException(FieldMapping fieldMapping, Object instance, Object value) throws InvalidFieldException {
+        try {
+            assignValueToField(fieldMapping, instance, value);
+        }  catch(InvalidFieldValueException e){
+            TypeMapper.invalidValue(this, fieldMapping.getName(), e);
+        } catch (InvalidFieldException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw TypeMapper.cannotAssign(fieldMapping.getName(), e);
         }
+    }
 
-        private boolean isRequired() {
-            return annotation.required();
+    void assignValueToField(FieldMapping fieldMapping, Object instance, Object value) throws Exception {
+        if (fieldMapping.getNested() != null) {
+            fieldMapping.set(instance, fieldMapping.getNested().map(this, value));
+            return;
+        }
+        if (fieldMapping.getConverter() == null) {
+            throw TypeMapper.notAvailable(fieldMapping.getField().getType());
         }
 
+        // set value in object
+        fieldMapping.assign(parser, instance, value);
+    }
 
-        public void set(Object value) throws IllegalAccessException {
-            field.set(annotatedObject, value);
-        }
+    public void setThrowExceptionInvalidValueParameter(boolean b) {
+        this.throwExceptionInvalidValueParameter = b;
+    }
+
+    public boolean isThrowExceptionInvalidValueParameter() {
+        return throwExceptionInvalidValueParameter;
     }
 }
\ No newline at end of file
@@ -0,0 +1,207 @@
+package com.rayjars.fieldmapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+
+/**
+ * Writes the value of one field. The writer is resolved once per field when the plan is built,
+ * the primitive entry points avoid boxing the value.
+ * <br/>
+ * The default implementation invokes a {@link MethodHandle} setter, which is available since Java 7.
+ * Static fields, and fields a setter handle cannot be created for (final fields), fall back to {@link java.lang.reflect.Field#set}.
+ */
+abstract class FieldWriter {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    protected final java.lang.reflect.Field field;
+
+    protected FieldWriter(java.lang.reflect.Field field) {
+        this.field = field;
+    }
+
+    /**
+     * @param field an accessible field
+     */
+    static FieldWriter of(java.lang.reflect.Field field) {
+        if (Modifier.isStatic(field.getModifiers())) {
+            return new ReflectionWriter(field);
+        }
+        try {
+            return new MethodHandleWriter(field, LOOKUP.unreflectSetter(field));
+        } catch (IllegalAccessException e) {
+            return new ReflectionWriter(field);
+        }
+    }
+
+    /**
+     * @return a setter handle of type (Object, field type)void
+     */
+    public abstract MethodHandle handle();
+
+    public abstract void set(Object instance, Object value) throws IllegalAccessException;
+
+    public abstract void setInt(Object instance, int value) throws IllegalAccessException;
+
+    public abstract void setLong(Object instance, long value) throws IllegalAccessException;
+
+    public abstract void setFloat(Object instance, float value) throws IllegalAccessException;
+
+    public abstract void setDouble(Object instance, double value) throws IllegalAccessException;
+
+    public abstract void setBoolean(Object instance, boolean value) throws IllegalAccessException;
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        // a field setter handle does not throw checked exceptions
+        return new IllegalStateException(t);
+    }
+
+    private static final class MethodHandleWriter extends FieldWriter {
+
+        private final MethodHandle handle;
+
+        private final MethodHandle setter;
+
+        // exact typed handle for primitive fields, null for reference fields
+        private final MethodHandle primitiveSetter;
+
+        private MethodHandleWriter(java.lang.reflect.Field field, MethodHandle handle) {
+            super(field);
+            Class<?> type = field.getType();
+            this.handle = handle.asType(MethodType.methodType(void.class, Object.class, type));
+            this.setter = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            this.primitiveSetter = type.isPrimitive() ? handle.asType(MethodType.methodType(void.class, Object.class, type)) : null;
+        }
+
+        private MethodHandle primitiveSetter(Class<?> type) {
+            if (field.getType() != type) {
+                throw new IllegalArgumentException("Field " + field.getName() + " of type " + field.getType() + " cannot be set to a " + type);
+            }
+            return primitiveSetter;
+        }
+
+        @Override
+        public MethodHandle handle() {
+            return handle;
+        }
+
+        @Override
+        public void set(Object instance, Object value) {
+            try {
+                setter.invokeExact(instance, value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        public void setInt(Object instance, int value) {
+            MethodHandle handle = primitiveSetter(int.class);
+            try {
+                handle.invokeExact(instance, value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        public void setLong(Object instance, long value) {
+            MethodHandle handle = primitiveSetter(long.class);
+            try {
+                handle.invokeExact(instance, value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        public void setFloat(Object instance, float value) {
+            MethodHandle handle = primitiveSetter(float.class);
+            try {
+                handle.invokeExact(instance, value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        public void setDouble(Object instance, double value) {
+            MethodHandle handle = primitiveSetter(double.class);
+            try {
+                handle.invokeExact(instance, value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        public void setBoolean(Object instance, boolean value) {
+            MethodHandle handle = primitiveSetter(boolean.class);
+            try {
+                handle.invokeExact(instance, value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+    }
+
+    private static final class ReflectionWriter extends FieldWriter {
+
+        private static final MethodHandle SET;
+
+        static {
+            try {
+                SET = LOOKUP.findVirtual(ReflectionWriter.class, "set", MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private ReflectionWriter(java.lang.reflect.Field field) {
+            super(field);
+        }
+
+        @Override
+        public MethodHandle handle() {
+            return SET.bindTo(this).asType(MethodType.methodType(void.class, Object.class, field.getType()));
+        }
+
+        @Override
+        public void set(Object instance, Object value) throws IllegalAccessException {
+            field.set(instance, value);
+        }
+
+        @Override
+        public void setInt(Object instance, int value) throws IllegalAccessException {
+            field.setInt(instance, value);
+        }
+
+        @Override
+        public void setLong(Object instance, long value) throws IllegalAccessException {
+            field.setLong(instance, value);
+        }
+
+        @Override
+        public void setFloat(Object instance, float value) throws IllegalAccessException {
+            field.setFloat(instance, value);
+        }
+
+        @Override
+        public void setDouble(Object instance, double value) throws IllegalAccessException {
+            field.setDouble(instance, value);
+        }
+
+        @Override
+        public void setBoolean(Object instance, boolean value) throws IllegalAccessException {
+            field.setBoolean(instance, value);
+        }
+    }
+}
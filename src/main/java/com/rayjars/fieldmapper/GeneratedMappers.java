@@ -0,0 +1,62 @@
+package com.rayjars.fieldmapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+
+/**
+ * Mappers generated at compile time by the <code>fieldmapper-processor</code> annotation processor.
+ * <br/>
+ * They are discovered through {@link ServiceLoader}, once per class loader, and indexed by the name of their mapped
+ * type. The mapper of a type is created once, when it is first used, and kept by the {@link MappingPlan} of the type.
+ */
+final class GeneratedMappers {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeneratedMappers.class);
+
+    // the names of the mapper classes by the name of their type, the strings do not pin the class loader
+    private static final Map<ClassLoader, Map<String, String>> REGISTERED = new WeakHashMap<>();
+
+    private GeneratedMappers() {
+    }
+
+    /**
+     * @return a new instance of the generated mapper of the type, null if there is none
+     */
+    static TypeMapper<?> find(Class<?> type) {
+        ClassLoader classLoader = type.getClassLoader();
+        String name = classLoader == null ? null : registered(classLoader).get(type.getName());
+        if (name == null) {
+            return null;
+        }
+
+        try {
+            TypeMapper<?> mapper = (TypeMapper<?>) Class.forName(name, true, classLoader).getConstructor().newInstance();
+            return mapper.getType() == type ? mapper : null;
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            LOGGER.warn("Cannot create the generated field mapper " + name + ", reflection is used instead", e);
+            return null;
+        }
+    }
+
+    private static synchronized Map<String, String> registered(ClassLoader classLoader) {
+        Map<String, String> names = REGISTERED.get(classLoader);
+        if (names == null) {
+            names = new HashMap<>();
+            try {
+                for (TypeMapper<?> mapper : ServiceLoader.load(TypeMapper.class, classLoader)) {
+                    names.put(mapper.getType().getName(), mapper.getClass().getName());
+                }
+            } catch (ServiceConfigurationError e) {
+                LOGGER.warn("Cannot load the generated field mappers, reflection is used instead", e);
+            }
+            REGISTERED.put(classLoader, names);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,14 @@
+package com.rayjars.fieldmapper;
+
+/**
+ * Creates the objects filled by {@link FieldValueMapper#mapAll(Iterable, InstanceFactory)}.
+ *
+ * @param <T> the mapped type
+ */
+public interface InstanceFactory<T> {
+
+    /**
+     * @return a new instance, called once per mapped parameter
+     */
+    T newInstance() throws Exception;
+}
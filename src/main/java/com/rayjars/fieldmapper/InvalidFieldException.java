@@ -16,4 +16,11 @@ public class InvalidFieldException extends Exception {
     public InvalidFieldException(Throwable cause) {
         super(cause);
     }
+
+    /**
+     * Without stack trace, for the failures expected at a high rate which are reported by their message.
+     */
+    protected InvalidFieldException(String message, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, false, writableStackTrace);
+    }
 }
@@ -15,4 +15,11 @@ public class InvalidFieldValueException extends InvalidFieldException {
     public InvalidFieldValueException(Throwable cause) {
         super(cause);
     }
+
+    /**
+     * Without stack trace, for the failures expected at a high rate which are reported by their message.
+     */
+    protected InvalidFieldValueException(String message, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, writableStackTrace);
+    }
 }
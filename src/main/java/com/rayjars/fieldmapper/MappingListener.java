@@ -0,0 +1,68 @@
+package com.rayjars.fieldmapper;
+
+/**
+ * Notified by a {@link FieldValueMapper} while it maps, in the mapping thread, see
+ * {@link FieldValueMapper#setMappingListener(MappingListener)}.
+ * <br/>
+ * The callbacks are made for each field, they must be cheap: count or aggregate the durations, and publish them
+ * elsewhere. Without a listener the mapper makes no call and reads no clock.
+ */
+public interface MappingListener {
+
+    /**
+     * The plan of a type has been built, at its first mapping with the {@link ConverterRegistry} of the mapper.
+     *
+     * @param nanos the time spent reading the annotations and resolving the converters
+     */
+    void planBuilt(Class<?> type, long nanos);
+
+    /**
+     * The value of a field, or of a creator parameter, has been converted and assigned.
+     *
+     * @param type  the mapped type declaring the field
+     * @param nanos the time spent converting and assigning the value, nested objects included
+     */
+    void fieldMapped(Class<?> type, String name, long nanos);
+
+    /**
+     * There is no parameter of this name, the default value of the field is used.
+     */
+    void defaultApplied(Class<?> type, String name, String defaultValue);
+
+    /**
+     * There is no parameter of this name for a required field, without default value. The mapping fails.
+     */
+    void requiredMissing(Class<?> type, String name);
+
+    /**
+     * The value cannot be converted or assigned. The mapping fails, or goes on if the value is invalid and the
+     * mapper ignores the invalid values.
+     */
+    void conversionFailed(Class<?> type, String name, Exception cause);
+
+    /**
+     * Listener with empty callbacks, to extend.
+     */
+    abstract class Adapter implements MappingListener {
+
+        @Override
+        public void planBuilt(Class<?> type, long nanos) {
+        }
+
+        @Override
+        public void fieldMapped(Class<?> type, String name, long nanos) {
+        }
+
+        @Override
+        public void defaultApplied(Class<?> type, String name, String defaultValue) {
+        }
+
+        @Override
+        public void requiredMissing(Class<?> type, String name) {
+        }
+
+        @Override
+        public void conversionFailed(Class<?> type, String name, Exception cause) {
+        }
+    }
+}
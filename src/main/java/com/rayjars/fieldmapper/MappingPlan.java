@@ -0,0 +1,263 @@
+package com.rayjars.fieldmapper;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable list of the {@link Field} annotated fields of a class, those declared by its superclasses included.
+ * <br/>
+ * Plans are built once per class and {@link ConverterRegistry}, and cached in a {@link ClassValue}, so they are
+ * shared between threads and mappers and released together with the class loader of the mapped class.
+ */
+final class MappingPlan {
+
+    // proxy classes generated by CGLIB, Spring, Javassist, Byte Buddy and Hibernate
+    private static final String[] PROXY_MARKERS = {"$$EnhancerBy", "$$SpringCGLIB$$", "_$$_jvst", "$ByteBuddy$", "$HibernateProxy$"};
+
+    private static final ClassValue<Class<?>> TARGET_CLASSES = new ClassValue<Class<?>>() {
+        @Override
+        protected Class<?> computeValue(Class<?> type) {
+            Class<?> target = type;
+            while (isProxy(target) && target.getSuperclass() != null && target.getSuperclass() != Object.class) {
+                target = target.getSuperclass();
+            }
+            return target;
+        }
+    };
+
+    private static final Object NO_MAPPER = new Object();
+
+    // types whose plan is being built by the thread, to detect the cycles between nested types
+    private static final ThreadLocal<Set<Class<?>>> BUILDING = new ThreadLocal<Set<Class<?>>>() {
+        @Override
+        protected Set<Class<?>> initialValue() {
+            return new HashSet<>();
+        }
+    };
+
+    private final Class<?> type;
+
+    private final FieldMapping[] fields;
+
+    // the no-arg constructor, null if there is none
+    private final Constructor<?> constructor;
+
+    private final CreatorMapping creator;
+
+    // reported when an instance is created, the plan of the fields remains usable
+    private final IllegalArgumentException creatorError;
+
+    // built at the first use of the compiled mappers
+    private volatile CompiledTypeMapper<?> compiledMapper;
+
+    // resolved at the first use of the generated mappers, NO_MAPPER if the type has none
+    private volatile Object generatedMapper;
+
+    MappingPlan(Class<?> type, ConverterRegistry converters) {
+        this.type = type;
+
+        Set<Class<?>> building = BUILDING.get();
+        building.add(type);
+        try {
+            List<FieldMapping> mappings = new ArrayList<>();
+            for (java.lang.reflect.Field field : annotatedFields(type)) {
+                Field annotation = field.getAnnotation(Field.class);
+                TypeConverter<?> converter = converters.find(field.getType(), field.getGenericType());
+                NestedMapping nested = NestedMapping.of(field, converter, converters);
+                mappings.add(new FieldMapping(field, annotation, nested == null ? converter : null, nested,
+                        converters.getFormatter(field.getType())));
+            }
+            this.fields = mappings.toArray(new FieldMapping[mappings.size()]);
+
+            CreatorMapping creatorMapping = null;
+            IllegalArgumentException error = null;
+            try {
+                creatorMapping = CreatorMapping.of(type, converters);
+            } catch (IllegalArgumentException e) {
+                error = e;
+            }
+            this.creator = creatorMapping;
+            this.creatorError = error;
+        } finally {
+            building.remove(type);
+        }
+
+        this.constructor = isConcrete(type) ? noArgConstructor(type) : null;
+    }
+
+    /**
+     * @return the annotated fields of the class and its superclasses, the fields of the superclasses first. A field
+     * mapped to the name of a superclass field shadows it, and takes its position.
+     */
+    private static Collection<java.lang.reflect.Field> annotatedFields(Class<?> type) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.add(current);
+        }
+
+        Map<String, java.lang.reflect.Field> fields = new LinkedHashMap<>();
+        for (int i = hierarchy.size() - 1; i >= 0; i--) {
+            for (java.lang.reflect.Field field : hierarchy.get(i).getDeclaredFields()) {
+                Field annotation = field.getAnnotation(Field.class);
+                if (annotation != null) {
+                    fields.put(annotation.name().isEmpty() ? field.getName() : annotation.name(), field);
+                }
+            }
+        }
+        return fields.values();
+    }
+
+    /**
+     * @return the class of the instances proxied by a generated subclass, or the type itself if it is not a proxy
+     */
+    static Class<?> targetClass(Class<?> type) {
+        return TARGET_CLASSES.get(type);
+    }
+
+    private static boolean isProxy(Class<?> type) {
+        String name = type.getName();
+        for (String marker : PROXY_MARKERS) {
+            if (name.contains(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Constructor<?> noArgConstructor(Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (RuntimeException e) {
+            // not accessible, the JDK types of a module not open to the mapper
+            return null;
+        }
+    }
+
+    private static boolean isConcrete(Class<?> type) {
+        return !(type.isPrimitive() || type.isArray() || type.isInterface() || type.isEnum()
+                || Modifier.isAbstract(type.getModifiers()));
+    }
+
+    static boolean isBuilding(Class<?> type) {
+        return BUILDING.get().contains(type);
+    }
+
+    /**
+     * @return true if the type can be created and mapped as a nested object: a concrete class with a {@link Creator},
+     * or with a no-arg constructor and at least one annotated field, declared or inherited
+     */
+    static boolean isNestable(Class<?> type) {
+        if (type == null || !isConcrete(type)) {
+            return false;
+        }
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            if (constructor.isAnnotationPresent(Creator.class)) {
+                return true;
+            }
+        }
+        for (java.lang.reflect.Method method : type.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(Creator.class)) {
+                return true;
+            }
+        }
+        if (noArgConstructor(type) == null) {
+            return false;
+        }
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (java.lang.reflect.Field field : current.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Field.class)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the plan of the type with the default converters
+     */
+    public static MappingPlan of(Class<?> type) {
+        return ConverterRegistry.DEFAULT.plan(type);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return the annotated fields, in declaration order from the topmost superclass. The array must not be modified.
+     */
+    FieldMapping[] getFields() {
+        return fields;
+    }
+
+    /**
+     * @return true if the type is mapped as a nested object, see {@link #isNestable(Class)}
+     */
+    boolean isNestable() {
+        return creator != null || creatorError != null || (constructor != null && fields.length > 0);
+    }
+
+    /**
+     * @return the creator of the type, null if the instances are created by the no-arg constructor
+     * @throws IllegalArgumentException if the creator of the type is not valid
+     */
+    CreatorMapping getCreator() {
+        if (creatorError != null) {
+            throw creatorError;
+        }
+        return creator;
+    }
+
+    /**
+     * @return a new instance created by the no-arg constructor
+     */
+    Object newInstance() throws InvalidFieldException {
+        if (constructor == null) {
+            throw new InvalidFieldException("Cannot create " + type.getName() + ". No creator or constructor without parameters");
+        }
+        try {
+            return constructor.newInstance();
+        } catch (InvocationTargetException e) {
+            throw new InvalidFieldException("Cannot create " + type.getName() + ". Cause by " + e.getCause().getMessage(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new InvalidFieldException("Cannot create " + type.getName() + ". Cause by " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the mapper generated at compile time for the type, null if there is none
+     */
+    TypeMapper<?> getGeneratedMapper() {
+        Object mapper = generatedMapper;
+        if (mapper == null) {
+            // a concurrent first use may load twice, both mappers are equivalent
+            TypeMapper<?> found = GeneratedMappers.find(type);
+            mapper = found == null ? NO_MAPPER : found;
+            generatedMapper = mapper;
+        }
+        return mapper == NO_MAPPER ? null : (TypeMapper<?>) mapper;
+    }
+
+    CompiledTypeMapper<?> getCompiledMapper() {
+        CompiledTypeMapper<?> mapper = compiledMapper;
+        if (mapper == null) {
+            // a concurrent first use may compile twice, both mappers are equivalent
+            mapper = CompiledTypeMapper.compile(this);
+            compiledMapper = mapper;
+        }
+        return mapper;
+    }
+}
@@ -0,0 +1,50 @@
+package com.rayjars.fieldmapper;
+
+/**
+ * Outcome of the mapping of one parameter by {@link FieldValueMapper#mapAll(Iterable, InstanceFactory)}:
+ * the mapped object, or the exception which stopped its mapping.
+ *
+ * @param <T> the mapped type
+ */
+public final class MappingResult<T> {
+
+    private final Param parameters;
+
+    private final T value;
+
+    private final Exception error;
+
+    MappingResult(Param parameters, T value, Exception error) {
+        this.parameters = parameters;
+        this.value = value;
+        this.error = error;
+    }
+
+    public Param getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return the mapped object, null if the mapping failed
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return the {@link InvalidFieldException}, or the exception of the conversion or of the {@link InstanceFactory},
+     * null if the mapping succeeded
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return error == null ? "MappingResult{" + value + "}" : "MappingResult{error=" + error + "}";
+    }
+}
@@ -0,0 +1,151 @@
+package com.rayjars.fieldmapper;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mapping of a field holding annotated objects: the object itself, or the elements of a <code>List</code> or the
+ * values of a <code>Map&lt;String, ?&gt;</code>. Each object is mapped from a child param with the plan of its type.
+ * <br/>
+ * The plan of the element type is resolved when the plan of the field is built, unless the element type is being
+ * built by the same thread: the types referencing themselves, directly or not, resolve it at the first use.
+ */
+final class NestedMapping {
+
+    private enum Kind {
+        OBJECT, LIST, MAP
+    }
+
+    private final Kind kind;
+
+    private final Class<?> type;
+
+    private final ConverterRegistry converters;
+
+    private volatile MappingPlan plan;
+
+    private NestedMapping(Kind kind, Class<?> type, ConverterRegistry converters) {
+        this.kind = kind;
+        this.type = type;
+        this.converters = converters;
+        this.plan = MappingPlan.isBuilding(type) ? null : converters.plan(type);
+    }
+
+    /**
+     * @param converter the converter found for the field type, a registered converter takes precedence
+     * @return the nested mapping of the field, null if it does not hold annotated objects
+     */
+    static NestedMapping of(java.lang.reflect.Field field, TypeConverter<?> converter, ConverterRegistry converters) {
+        return of(field.getType(), field.getGenericType(), converter, converters);
+    }
+
+    /**
+     * @param fieldType   the type of the field or the parameter
+     * @param genericType its generic type, to find the elements of a list or a map
+     */
+    static NestedMapping of(Class<?> fieldType, Type genericType, TypeConverter<?> converter, ConverterRegistry converters) {
+
+        if (converter == null && MappingPlan.isNestable(fieldType)) {
+            return new NestedMapping(Kind.OBJECT, fieldType, converters);
+        }
+        if (converter == BuiltinConverters.LIST && fieldType.isAssignableFrom(ArrayList.class)) {
+            Class<?> elementType = typeArgument(genericType, 0);
+            if (MappingPlan.isNestable(elementType)) {
+                return new NestedMapping(Kind.LIST, elementType, converters);
+            }
+        }
+        if (converter == BuiltinConverters.MAP && fieldType.isAssignableFrom(LinkedHashMap.class)
+                && typeArgument(genericType, 0) == String.class) {
+            Class<?> valueType = typeArgument(genericType, 1);
+            if (MappingPlan.isNestable(valueType)) {
+                return new NestedMapping(Kind.MAP, valueType, converters);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the class of a type argument of a parameterized type, null if the type is raw or the argument is not a class
+     */
+    static Class<?> typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length && arguments[index] instanceof Class) {
+                return (Class<?>) arguments[index];
+            }
+        }
+        return null;
+    }
+
+    MappingPlan getPlan() {
+        MappingPlan mappingPlan = plan;
+        if (mappingPlan == null) {
+            mappingPlan = converters.plan(type);
+            plan = mappingPlan;
+        }
+        return mappingPlan;
+    }
+
+    /**
+     * @param value the child param of the field
+     * @return the mapped object, list or map
+     */
+    Object map(FieldValueMapper mapper, Object value) throws InvalidFieldException {
+        Param param = node(value);
+
+        switch (kind) {
+            case LIST:
+                List<Object> list = new ArrayList<>(param.getChilds().size());
+                for (Param child : param.getChilds()) {
+                    list.add(mapper.create(getPlan(), child));
+                }
+                return list;
+            case MAP:
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (Param child : param.getChilds()) {
+                    map.put(child.getName(), mapper.create(getPlan(), child));
+                }
+                return map;
+            default:
+                return mapper.create(getPlan(), param);
+        }
+    }
+
+    /**
+     * Writes the object, the list or the map of the field to its param, the inverse of {@link #map}.
+     * The elements of a list are written to children named by their index, the values of a map by their key.
+     */
+    void write(ParamWriter writer, Object value, Param param) throws InvalidFieldException {
+        switch (kind) {
+            case LIST:
+                int index = 0;
+                for (Object element : (List<?>) value) {
+                    if (element != null) {
+                        param.addChild(writer.write(getPlan(), element, new Param(String.valueOf(index))));
+                    }
+                    index++;
+                }
+                break;
+            case MAP:
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    if (entry.getValue() != null) {
+                        param.addChild(writer.write(getPlan(), entry.getValue(), new Param(String.valueOf(entry.getKey()))));
+                    }
+                }
+                break;
+            default:
+                writer.write(getPlan(), value, param);
+        }
+    }
+
+    static Param node(Object value) throws InvalidFieldValueException {
+        if (!(value instanceof Param)) {
+            throw new InvalidFieldValueException("The value " + value + " is not a param node !", null, false);
+        }
+        return (Param) value;
+    }
+}
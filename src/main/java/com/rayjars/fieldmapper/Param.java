@@ -1,23 +1,45 @@
 package com.rayjars.fieldmapper;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.*;
 
 
+/**
+ * Named value with ordered children.
+ * <br/>
+ * Most params are leaves, so the children are stored compactly: a leaf holds no child storage, the children are
+ * kept in an array, and a name index is built only above {@link #INDEX_THRESHOLD} children. Below it
+ * {@link #getChild(String)} scans the few children.
+ */
 public class Param implements Serializable {
 
+    private static final long serialVersionUID = 1L;
+
+    static final int INDEX_THRESHOLD = 8;
+
+    private static final Param[] NO_CHILDREN = new Param[0];
+
     protected String name;
 
     protected String value;
 
-    protected final List<Param> childList;
+    // serialized without its free capacity, see writeObject
+    private transient Param[] children = NO_CHILDREN;
+
+    private int childCount;
+
+    // name of each child, the last one added for a name, built above INDEX_THRESHOLD children
+    private transient Map<String, Param> childIndex;
 
-    protected final Map<String, Param> childMap;
+    private transient volatile ParamHierarchy hierarchy;
 
     public Param(String name) {
         this.name = name;
-        childList = new ArrayList<>();
-        childMap = new HashMap<>();
     }
 
     public Param(String name, String value){
@@ -25,6 +47,16 @@ public class Param implements Serializable {
         setValue(value);
     }
 
+    /**
+     * @param childCapacity the number of children which will be added
+     */
+    Param(String name, String value, int childCapacity) {
+        this(name, value);
+        if (childCapacity > 0) {
+            children = new Param[childCapacity];
+        }
+    }
+
     public Param(String name, Properties properties) {
         this(name);
         load(properties);
@@ -37,6 +69,15 @@ public class Param implements Serializable {
         return this;
     }
 
+    /**
+     * Loads a .properties file in the children of this param, without building a {@link Properties} first,
+     * see {@link PropertiesLoader}.
+     */
+    public Param load(File file) throws IOException {
+        PropertiesLoader.load(file, this);
+        return this;
+    }
+
     public String getName() {
         return name;
     }
@@ -66,13 +107,24 @@ public class Param implements Serializable {
             addChild(child);
         }else{
             child.setValue(value);
+            hierarchy = null;
         }
 
         return this;
     }
 
     public Param getChild(String name) {
-        return childMap.get(name);
+        if (childIndex != null) {
+            return childIndex.get(name);
+        }
+        // the last child added wins, as in the index
+        for (int i = childCount - 1; i >= 0; i--) {
+            String childName = children[i].getName();
+            if (name == null ? childName == null : name.equals(childName)) {
+                return children[i];
+            }
+        }
+        return null;
     }
 
     public Param addChild(String name, String value) {
@@ -80,17 +132,87 @@ public class Param implements Serializable {
     }
 
     public Param addChild(Param child) {
-        childList.add(child);
-        childMap.put(child.getName(), child);
+        if (childCount == children.length) {
+            children = Arrays.copyOf(children, childCount == 0 ? 2 : childCount * 2);
+        }
+        children[childCount++] = child;
+        hierarchy = null;
+
+        if (childIndex != null) {
+            childIndex.put(child.getName(), child);
+        } else if (childCount > INDEX_THRESHOLD) {
+            buildIndex();
+        }
         return this;
     }
 
+    /**
+     * @return the view of the dotted names of the children, built at the first call and again after a child is added or put.
+     * The values of the children changed directly are not reflected.
+     */
+    public ParamHierarchy getHierarchy() {
+        ParamHierarchy view = hierarchy;
+        if (view == null) {
+            view = ParamHierarchy.of(this);
+            hierarchy = view;
+        }
+        return view;
+    }
+
     public List<Param> getChilds() {
-        return Collections.unmodifiableList(childList);
+        return childCount == 0 ? Collections.<Param>emptyList() : new ChildList();
     }
 
     public Boolean containsNoChilds() {
-        return getChilds().isEmpty();
+        return childCount == 0;
+    }
+
+    private void buildIndex() {
+        childIndex = new HashMap<>(childCount * 2);
+        for (int i = 0; i < childCount; i++) {
+            childIndex.put(children[i].getName(), children[i]);
+        }
     }
 
+    /**
+     * @serialData the name, the value and the child count, followed by each child
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        for (int i = 0; i < childCount; i++) {
+            out.writeObject(children[i]);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (childCount < 0) {
+            throw new InvalidObjectException("Negative child count " + childCount);
+        }
+        children = childCount == 0 ? NO_CHILDREN : new Param[childCount];
+        for (int i = 0; i < childCount; i++) {
+            children[i] = (Param) in.readObject();
+        }
+        if (childCount > INDEX_THRESHOLD) {
+            buildIndex();
+        }
+    }
+
+    /**
+     * Read-only view of the children.
+     */
+    private final class ChildList extends AbstractList<Param> implements RandomAccess {
+        @Override
+        public Param get(int index) {
+            if (index >= childCount) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + childCount);
+            }
+            return children[index];
+        }
+
+        @Override
+        public int size() {
+            return childCount;
+        }
+    }
 }
@@ -0,0 +1,383 @@
+package com.rayjars.fieldmapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format of a {@link Param} tree, to move the trees between processes instead of the Java
+ * serialization of the params.
+ * <br/>
+ * The format is, with the integers as unsigned varints (7 bits per byte, low bits first) and the strings in UTF-8:
+ * <pre>
+ * 'F' 'M' 'P' version
+ * nameCount (length bytes)*      dictionary of the distinct names, in order of first use
+ * node                           the root
+ *
+ * node = nameIndex               1 + index in the dictionary, 0 for a null name
+ *        valueLength             1 + length in bytes, 0 for a null value
+ *        value bytes
+ *        childCount
+ *        childrenLength          only with children, the length in bytes of the children, to skip the subtree
+ *        node*
+ * </pre>
+ * The encoder computes the sizes first, then writes each string directly to the buffer. The decoder reads the
+ * buffer once from its position, the strings are built from the array of a heap buffer without copy.
+ */
+public final class ParamCodec {
+
+    private static final byte[] MAGIC = {'F', 'M', 'P'};
+
+    static final int VERSION = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private ParamCodec() {
+    }
+
+    /**
+     * @return a heap buffer holding the encoded tree, ready to be read
+     */
+    public static ByteBuffer encode(Param param) {
+        Encoder encoder = new Encoder(param);
+        ByteBuffer buffer = ByteBuffer.allocate(encoder.size);
+        encoder.write(buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Writes the encoded tree at the position of the buffer, and moves its position after it.
+     *
+     * @throws BufferOverflowException if the remaining space is not large enough
+     */
+    public static void encode(Param param, ByteBuffer buffer) {
+        Encoder encoder = new Encoder(param);
+        if (buffer.remaining() < encoder.size) {
+            throw new BufferOverflowException();
+        }
+        encoder.write(buffer);
+    }
+
+    /**
+     * @return the size in bytes of the encoded tree
+     */
+    public static int encodedSize(Param param) {
+        return new Encoder(param).size;
+    }
+
+    /**
+     * Reads a tree from the position of the buffer, heap or direct, and moves its position after it.
+     *
+     * @throws IllegalArgumentException if the buffer does not hold an encoded tree
+     * @throws BufferUnderflowException if the encoded tree is truncated
+     */
+    public static Param decode(ByteBuffer buffer) {
+        String[] names = readHeader(buffer);
+        return readNode(buffer, names, new byte[64]);
+    }
+
+    /**
+     * Reads a tree lazily: the returned param is a read-only view which decodes its value and its children when they
+     * are read. Mapping an object from the view only decodes the values of the mapped fields.
+     * <br/>
+     * The tree is read from the position of the buffer, which is not moved. The buffer must not be modified while the
+     * view is used.
+     *
+     * @throws IllegalArgumentException if the buffer does not hold an encoded tree
+     */
+    public static Param view(ByteBuffer buffer) {
+        return EncodedParam.of(buffer);
+    }
+
+    /**
+     * Memory-maps an encoded file and reads it lazily, see {@link #view(ByteBuffer)}.
+     * The file is mapped until the view is garbage collected.
+     */
+    public static Param view(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return view(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads the magic number, the version and the dictionary.
+     *
+     * @return the names by index, the index 0 is the null name
+     */
+    static String[] readHeader(ByteBuffer buffer) {
+        readVersion(buffer);
+        String[] names = new String[readCount(buffer, "name") + 1];
+        byte[] scratch = new byte[64];
+        for (int i = 1; i < names.length; i++) {
+            int length = readVarint(buffer);
+            names[i] = readString(buffer, length, scratch);
+        }
+        return names;
+    }
+
+    /**
+     * Reads the magic number and checks the version.
+     */
+    static void readVersion(ByteBuffer buffer) {
+        for (byte magic : MAGIC) {
+            if (buffer.get() != magic) {
+                throw new IllegalArgumentException("The buffer does not hold an encoded Param");
+            }
+        }
+        int version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported version " + version + " of the encoded Param");
+        }
+    }
+
+    private static Param readNode(ByteBuffer buffer, String[] names, byte[] scratch) {
+        String name = readName(buffer, names);
+        int valueLength = readVarint(buffer);
+        String value = valueLength == 0 ? null : readString(buffer, valueLength - 1, scratch);
+
+        int childCount = readCount(buffer, "child");
+        if (childCount == 0) {
+            return new Param(name, value);
+        }
+
+        // the length of the children is only needed to skip them
+        readVarint(buffer);
+        Param param = new Param(name, value, childCount);
+        for (int i = 0; i < childCount; i++) {
+            param.addChild(readNode(buffer, names, scratch));
+        }
+        return param;
+    }
+
+    static String readName(ByteBuffer buffer, String[] names) {
+        int index = readVarint(buffer);
+        if (index >= names.length) {
+            throw new IllegalArgumentException("Malformed name index " + index + " in the encoded Param");
+        }
+        return names[index];
+    }
+
+    static String readString(ByteBuffer buffer, int length, byte[] scratch) {
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String string;
+        if (buffer.hasArray()) {
+            string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+            buffer.get(bytes, 0, length);
+            string = new String(bytes, 0, length, UTF_8);
+        }
+        return string;
+    }
+
+    /**
+     * Reads the count of the names or of the children, each of them takes one byte at least.
+     *
+     * @throws IllegalArgumentException if the remaining bytes cannot hold them
+     */
+    static int readCount(ByteBuffer buffer, String counted) {
+        int count = readVarint(buffer);
+        if (count > buffer.remaining()) {
+            throw new IllegalArgumentException("Malformed " + counted + " count " + count + " in the encoded Param");
+        }
+        return count;
+    }
+
+    static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in the encoded Param");
+    }
+
+    static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7f) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void writeVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7f) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * @return the length of the string in UTF-8, an unpaired surrogate is one byte as in {@link String#getBytes}
+     */
+    private static int utf8Length(String string) {
+        int length = 0;
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static void writeUtf8(ByteBuffer buffer, String string) {
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xc0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, string.charAt(++i));
+                buffer.put((byte) (0xf0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3f)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xe0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+                buffer.put((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+    }
+
+    /**
+     * Measures the tree, then writes it in the same order.
+     */
+    private static final class Encoder {
+        private final Param root;
+
+        private final Map<String, Integer> nameIndexes = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        // length of the children of each node with children, in preorder
+        private int[] childrenLengths = new int[16];
+        private int nodesWithChildren;
+        private int next;
+
+        private final int size;
+
+        private Encoder(Param root) {
+            this.root = root;
+
+            int nodes = measure(root);
+            int header = MAGIC.length + 1 + varintSize(names.size());
+            for (String name : names) {
+                int length = utf8Length(name);
+                header += varintSize(length) + length;
+            }
+            this.size = header + nodes;
+        }
+
+        private int nameIndex(String name) {
+            if (name == null) {
+                return 0;
+            }
+            Integer index = nameIndexes.get(name);
+            if (index == null) {
+                names.add(name);
+                index = names.size();
+                nameIndexes.put(name, index);
+            }
+            return index;
+        }
+
+        private int measure(Param param) {
+            int size = varintSize(nameIndex(param.getName()));
+
+            String value = param.getValue();
+            if (value == null) {
+                size++;
+            } else {
+                int length = utf8Length(value);
+                size += varintSize(length + 1) + length;
+            }
+
+            List<Param> children = param.getChilds();
+            size += varintSize(children.size());
+            if (!children.isEmpty()) {
+                int slot = nodesWithChildren++;
+                if (slot == childrenLengths.length) {
+                    childrenLengths = Arrays.copyOf(childrenLengths, slot * 2);
+                }
+
+                int childrenLength = 0;
+                for (Param child : children) {
+                    childrenLength += measure(child);
+                }
+                childrenLengths[slot] = childrenLength;
+                size += varintSize(childrenLength) + childrenLength;
+            }
+            return size;
+        }
+
+        private void write(ByteBuffer buffer) {
+            buffer.put(MAGIC);
+            buffer.put((byte) VERSION);
+            writeVarint(buffer, names.size());
+            for (String name : names) {
+                writeVarint(buffer, utf8Length(name));
+                writeUtf8(buffer, name);
+            }
+            next = 0;
+            writeNode(buffer, root);
+        }
+
+        private void writeNode(ByteBuffer buffer, Param param) {
+            String name = param.getName();
+            writeVarint(buffer, name == null ? 0 : nameIndexes.get(name));
+
+            String value = param.getValue();
+            if (value == null) {
+                writeVarint(buffer, 0);
+            } else {
+                writeVarint(buffer, utf8Length(value) + 1);
+                writeUtf8(buffer, value);
+            }
+
+            List<Param> children = param.getChilds();
+            writeVarint(buffer, children.size());
+            if (!children.isEmpty()) {
+                writeVarint(buffer, childrenLengths[next++]);
+                for (Param child : children) {
+                    writeNode(buffer, child);
+                }
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.rayjars.fieldmapper;
 
 import java.awt.*;
 import java.io.File;
+import java.lang.reflect.Array;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.text.ParseException;
@@ -11,6 +12,9 @@ import java.util.List;
 
 public class ParamFieldParser extends StringFieldParser {
 
+    // shared, the exception has no stack trace and cannot be modified
+    private static final InvalidFieldValueException NO_CHILDREN = new InvalidFieldValueException("The param doesnt contains any childrens !", null, false);
+
     public Long parseLong(Object value) {
         return super.parseLong(getStringValue(value));
     }
@@ -35,6 +39,29 @@ public class ParamFieldParser extends StringFieldParser {
         return super.parseInteger(getStringValue(value));
     }
 
+    /**
+     * Parses the value of a <code>long</code> field, the boxed {@link #parseLong(Object)} parses the <code>Long</code> fields.
+     */
+    public long parseLongValue(Object value) {
+        return super.parseLongValue(getStringValue(value));
+    }
+
+    public int parseIntValue(Object value) {
+        return super.parseIntValue(getStringValue(value));
+    }
+
+    public float parseFloatValue(Object value) {
+        return super.parseFloatValue(getStringValue(value));
+    }
+
+    public double parseDoubleValue(Object value) {
+        return super.parseDoubleValue(getStringValue(value));
+    }
+
+    public boolean parseBooleanValue(Object value) {
+        return super.parseBooleanValue(getStringValue(value));
+    }
+
     public Date parseDate(Object value) throws ParseException {
         return super.parseDate(getStringValue(value));
     }
@@ -53,7 +80,7 @@ public class ParamFieldParser extends StringFieldParser {
             Param paramValue = (Param) value;
 
             if(paramValue.containsNoChilds()){
-                throw new InvalidFieldValueException("The param doesnt contains any childrens !");
+                throw NO_CHILDREN;
             }
 
             List<String> list = new ArrayList<>();
@@ -77,7 +104,7 @@ public class ParamFieldParser extends StringFieldParser {
             Param paramValue = (Param) value;
 
             if(paramValue.containsNoChilds()){
-                throw new InvalidFieldValueException("The param doesnt contains any childrens !");
+                throw NO_CHILDREN;
             }
 
             for (Param child : paramValue.getChilds()) {
@@ -99,6 +126,138 @@ public class ParamFieldParser extends StringFieldParser {
     }
 
 
+    /**
+     * Parses the values of an <code>int[]</code> field, each value as an <code>int</code> field without boxing.
+     */
+    public int[] parseIntArray(Object value) throws InvalidFieldValueException {
+        if (isNodeDom(value)) {
+            List<Param> children = children(value);
+            int[] array = new int[children.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = parseIntValue(children.get(i));
+            }
+            return array;
+        }
+
+        Tokens tokens = new Tokens((String) value, false);
+        int[] array = new int[tokens.count()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = parseIntValue(tokens.next());
+        }
+        return array;
+    }
+
+    public long[] parseLongArray(Object value) throws InvalidFieldValueException {
+        if (isNodeDom(value)) {
+            List<Param> children = children(value);
+            long[] array = new long[children.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = parseLongValue(children.get(i));
+            }
+            return array;
+        }
+
+        Tokens tokens = new Tokens((String) value, false);
+        long[] array = new long[tokens.count()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = parseLongValue(tokens.next());
+        }
+        return array;
+    }
+
+    public double[] parseDoubleArray(Object value) throws InvalidFieldValueException {
+        if (isNodeDom(value)) {
+            List<Param> children = children(value);
+            double[] array = new double[children.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = parseDoubleValue(children.get(i));
+            }
+            return array;
+        }
+
+        Tokens tokens = new Tokens((String) value, false);
+        double[] array = new double[tokens.count()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = parseDoubleValue(tokens.next());
+        }
+        return array;
+    }
+
+    /**
+     * Parses the values of an array field, each value is converted by the converter of the component type.
+     * The primitive components are unboxed into the array.
+     */
+    public Object parseArray(Object value, Class<?> componentType, TypeConverter<?> converter) throws Exception {
+        if (isNodeDom(value)) {
+            List<Param> children = children(value);
+            Object array = Array.newInstance(componentType, children.size());
+            for (int i = 0; i < children.size(); i++) {
+                Array.set(array, i, element(children.get(i), converter));
+            }
+            return array;
+        }
+
+        Tokens tokens = new Tokens((String) value, false);
+        Object array = Array.newInstance(componentType, tokens.count());
+        for (int i = 0; i < tokens.count(); i++) {
+            Array.set(array, i, converter.convert(this, tokens.next()));
+        }
+        return array;
+    }
+
+    /**
+     * Parses the values of a <code>List&lt;T&gt;</code> field, each value is converted by the converter of the element type.
+     */
+    public <T> List<T> parseList(Object value, TypeConverter<? extends T> converter) throws Exception {
+        if (isNodeDom(value)) {
+            List<Param> children = children(value);
+            List<T> list = new ArrayList<>(children.size());
+            for (Param child : children) {
+                list.add(element(child, converter));
+            }
+            return list;
+        }
+
+        Tokens tokens = new Tokens((String) value, false);
+        List<T> list = new ArrayList<>(tokens.count());
+        while (tokens.remaining() > 0) {
+            list.add(converter.convert(this, tokens.next()));
+        }
+        return list;
+    }
+
+    /**
+     * Parses the values of a <code>Map&lt;String, V&gt;</code> field, each value is converted by the converter of the value type.
+     */
+    public <V> Map<String, V> parseMap(Object value, TypeConverter<? extends V> converter) throws Exception {
+        if (isNodeDom(value)) {
+            List<Param> children = children(value);
+            Map<String, V> map = new HashMap<>(capacity(children.size()));
+            for (Param child : children) {
+                map.put(child.getName(), element(child, converter));
+            }
+            return map;
+        }
+
+        Tokens tokens = new Tokens((String) value, true);
+        Map<String, V> map = new HashMap<>(capacity(tokens.count() / 2));
+        while (tokens.remaining() >= 2) {
+            String key = tokens.next();
+            map.put(key, converter.convert(this, tokens.next()));
+        }
+        return map;
+    }
+
+    /**
+     * @return the converted child, null for a child without value nor children, as a null element is written
+     */
+    private <T> T element(Param child, TypeConverter<T> converter) throws Exception {
+        if (child.getValue() == null && child.containsNoChilds()) {
+            return null;
+        }
+        return converter.convert(this, child);
+    }
+
     public Color parseColor(Object value){
         return super.parseColor(getStringValue(value));
     }
@@ -110,6 +269,19 @@ public class ParamFieldParser extends StringFieldParser {
 
 //------------------------------------------------ Utils methods
 
+    private static List<Param> children(Object value) throws InvalidFieldValueException {
+        Param paramValue = (Param) value;
+        if (paramValue.containsNoChilds()) {
+            throw NO_CHILDREN;
+        }
+        return paramValue.getChilds();
+    }
+
+    // capacity of a HashMap holding the entries without resizing
+    private static int capacity(int entries) {
+        return entries < 3 ? entries + 1 : (int) (entries / 0.75f) + 1;
+    }
+
     public String getStringValue(Object value) {
         Object copy = value;
 
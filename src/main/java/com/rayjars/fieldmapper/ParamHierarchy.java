@@ -0,0 +1,91 @@
+package com.rayjars.fieldmapper;
+
+/**
+ * Hierarchical view of a {@link Param} whose children have dotted names, as the keys of a
+ * {@link java.util.Properties}: <code>db.pool.max=10</code> becomes the node <code>max</code>, with the value 10,
+ * child of <code>pool</code>, child of <code>db</code>.
+ * <br/>
+ * The view is built once by {@link Param#getHierarchy()}, then {@link #subtree(String)} walks one node per segment
+ * instead of scanning every key for a prefix. Its nodes are shared and must not be modified.
+ */
+public final class ParamHierarchy {
+
+    private static final char SEPARATOR = '.';
+
+    private final Param root;
+
+    private ParamHierarchy(Param root) {
+        this.root = root;
+    }
+
+    /**
+     * Splits the names of the children of the param, the children of a child are kept as is under its last segment.
+     * When a name is found twice, the last value wins. A child without name has no segment, it is kept as a child
+     * without name of the root.
+     */
+    static ParamHierarchy of(Param param) {
+        Param root = new Param(param.getName(), param.getValue());
+
+        for (Param child : param.getChilds()) {
+            String name = child.getName();
+            Param node = name == null ? segment(root, null) : path(root, name);
+
+            if (child.getValue() != null) {
+                node.setValue(child.getValue());
+            }
+            for (Param grandChild : child.getChilds()) {
+                node.addChild(grandChild);
+            }
+        }
+        return new ParamHierarchy(root);
+    }
+
+    /**
+     * @return the node of the dotted name, created with its parents if needed
+     */
+    private static Param path(Param root, String name) {
+        Param node = root;
+        int start = 0;
+
+        while (true) {
+            int end = name.indexOf(SEPARATOR, start);
+            node = segment(node, end < 0 ? name.substring(start) : name.substring(start, end));
+            if (end < 0) {
+                return node;
+            }
+            start = end + 1;
+        }
+    }
+
+    private static Param segment(Param node, String name) {
+        Param child = node.getChild(name);
+        if (child == null) {
+            child = new Param(name);
+            node.addChild(child);
+        }
+        return child;
+    }
+
+    public Param getRoot() {
+        return root;
+    }
+
+    /**
+     * @param path dotted path of the node, such as <code>db.pool</code>
+     * @return the node of the path, null if no key starts with it
+     */
+    public Param subtree(String path) {
+        Param node = root;
+        int start = 0;
+
+        while (node != null) {
+            int end = path.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                return node.getChild(path.substring(start));
+            }
+            node = node.getChild(path.substring(start, end));
+            start = end + 1;
+        }
+        return null;
+    }
+}
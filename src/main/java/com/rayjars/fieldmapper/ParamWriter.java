@@ -0,0 +1,143 @@
+package com.rayjars.fieldmapper;
+
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Writes the {@link Field} annotated fields of objects to a {@link Param} tree, the inverse of the mapping, see
+ * {@link FieldValueMapper#mapObjectToParam(Object)}.
+ * <br/>
+ * Each field is read with the {@link MappingPlan} of its class and formatted by the {@link TypeFormatter} of its type,
+ * or of the type of its value when the declared type has none. A null field is not written. The arrays, lists and
+ * maps, and the nested objects, are written to child params as they are mapped: the parser reads a
+ * collection from a param with children only.
+ */
+final class ParamWriter {
+
+    private final StringFieldFormatter formatter;
+
+    private final ConverterRegistry converters;
+
+    ParamWriter(StringFieldFormatter formatter, ConverterRegistry converters) {
+        this.formatter = formatter;
+        this.converters = converters;
+    }
+
+    /**
+     * @return the param, with a child for each field of the instance
+     */
+    Param write(MappingPlan plan, Object instance, Param param) throws InvalidFieldException {
+        for (FieldMapping field : plan.getFields()) {
+            String name = field.getName();
+            Object value;
+            try {
+                value = field.get(instance);
+            } catch (IllegalAccessException e) {
+                throw cannotFormat(name, e);
+            }
+
+            if (value == null) {
+                continue;
+            }
+            if (field.getNested() != null) {
+                Param child = new Param(name);
+                field.getNested().write(this, value, child);
+                param.addChild(child);
+                continue;
+            }
+
+            TypeFormatter<?> typeFormatter = field.getFormatter() != null ? field.getFormatter() : formatterOf(value);
+            if (BuiltinFormatters.isCollection(typeFormatter)) {
+                writeCollection(param, name, value);
+            } else {
+                param.addChild(name, format(name, typeFormatter, value));
+            }
+        }
+        return param;
+    }
+
+    /**
+     * Writes the elements as the children of a param, the parser reads them back whatever their content.
+     * Each element is formatted by the formatter of its type, a null element is a child without value. An empty
+     * collection is not written, a param without children is not a valid collection.
+     */
+    private void writeCollection(Param param, String name, Object value) throws InvalidFieldException {
+        Param child = new Param(name);
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                child.addChild(element(name, String.valueOf(entry.getKey()), entry.getValue()));
+            }
+        } else if (value instanceof List) {
+            int index = 0;
+            for (Object element : (List<?>) value) {
+                child.addChild(element(name, String.valueOf(index++), element));
+            }
+        } else {
+            for (int i = 0; i < Array.getLength(value); i++) {
+                child.addChild(element(name, String.valueOf(i), Array.get(value, i)));
+            }
+        }
+
+        if (!child.containsNoChilds()) {
+            param.addChild(child);
+        }
+    }
+
+    private Param element(String name, String key, Object element) throws InvalidFieldException {
+        return new Param(key, element == null ? null : format(name, formatterOf(element), element));
+    }
+
+    private TypeFormatter<?> formatterOf(Object value) {
+        TypeFormatter<?> typeFormatter = converters.getFormatter(value.getClass());
+        if (typeFormatter != null) {
+            return typeFormatter;
+        } else if (value instanceof List) {
+            return BuiltinFormatters.LIST;
+        } else if (value.getClass().isArray()) {
+            return BuiltinFormatters.ARRAY;
+        } else if (value instanceof Map) {
+            return BuiltinFormatters.MAP;
+        }
+        // the types without formatter are written as they print
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String format(String name, TypeFormatter<?> typeFormatter, Object value) throws InvalidFieldException {
+        if (typeFormatter == null) {
+            return String.valueOf(value);
+        }
+        try {
+            return ((TypeFormatter<Object>) typeFormatter).format(formatter, value);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw cannotFormat(name, e);
+        }
+    }
+
+    private static InvalidFieldException cannotFormat(String name, Exception cause) {
+        return new InvalidFieldException("Cannot format the value of the parameter " + name + ". Cause by " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Flattens a param tree, the names of the nested params are joined by dots as in {@link ParamHierarchy}.
+     */
+    static Properties toProperties(Param param) {
+        Properties properties = new Properties();
+        flatten(param, "", properties);
+        return properties;
+    }
+
+    private static void flatten(Param param, String prefix, Properties properties) {
+        for (Param child : param.getChilds()) {
+            if (!child.containsNoChilds()) {
+                flatten(child, prefix + child.getName() + ".", properties);
+            } else if (child.getValue() != null) {
+                properties.setProperty(prefix + child.getName(), child.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.rayjars.fieldmapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file in the format of {@link java.util.Properties#load(java.io.InputStream)} into the children of a
+ * {@link Param}, see {@link Param#load(File)}.
+ * <br/>
+ * The file is memory-mapped and decoded as ISO-8859-1 one logical line at a time, comments, line continuations and
+ * escapes are handled as by Properties. Only the line being parsed is buffered, so the memory used is the one of the
+ * resulting Param tree. A key found twice keeps its last value.
+ */
+final class PropertiesLoader {
+
+    // files larger than a mapping are read through consecutive windows
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+
+    private MappedByteBuffer buffer;
+    private long position;
+
+    private char[] line = new char[256];
+    private char[] converted = new char[256];
+
+    private PropertiesLoader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    static void load(File file, Param param) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            new PropertiesLoader(channel).load(param);
+        }
+    }
+
+    private void load(Param param) throws IOException {
+        int limit;
+        while ((limit = readLine()) >= 0) {
+            int keyLength = 0;
+            int valueStart = limit;
+            boolean hasSeparator = false;
+            boolean precedingBackslash = false;
+
+            while (keyLength < limit) {
+                char c = line[keyLength];
+                if ((c == '=' || c == ':') && !precedingBackslash) {
+                    valueStart = keyLength + 1;
+                    hasSeparator = true;
+                    break;
+                } else if (isWhitespace(c) && !precedingBackslash) {
+                    valueStart = keyLength + 1;
+                    break;
+                }
+                precedingBackslash = c == '\\' && !precedingBackslash;
+                keyLength++;
+            }
+
+            while (valueStart < limit) {
+                char c = line[valueStart];
+                if (!isWhitespace(c)) {
+                    if (!hasSeparator && (c == '=' || c == ':')) {
+                        hasSeparator = true;
+                    } else {
+                        break;
+                    }
+                }
+                valueStart++;
+            }
+
+            param.putChild(unescape(0, keyLength), unescape(valueStart, limit - valueStart));
+        }
+    }
+
+    /**
+     * Reads the next logical line, without its leading whitespaces and continuation backslashes.
+     *
+     * @return the length of the line in the buffer, -1 at the end of the file
+     */
+    private int readLine() throws IOException {
+        int length = 0;
+        boolean skipWhitespace = true;
+        boolean commentLine = false;
+        boolean newLine = true;
+        boolean continuation = false;
+        boolean precedingBackslash = false;
+        boolean skipLineFeed = false;
+
+        while (true) {
+            int b = next();
+            if (b < 0) {
+                if (commentLine || length == 0) {
+                    return -1;
+                }
+                return precedingBackslash ? length - 1 : length;
+            }
+            char c = (char) b;
+
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+            if (skipWhitespace) {
+                if (isWhitespace(c) || (!continuation && (c == '\r' || c == '\n'))) {
+                    continue;
+                }
+                skipWhitespace = false;
+                continuation = false;
+            }
+            if (newLine) {
+                newLine = false;
+                if (c == '#' || c == '!') {
+                    commentLine = true;
+                    continue;
+                }
+            }
+
+            if (c != '\n' && c != '\r') {
+                if (!commentLine) {
+                    if (length == line.length) {
+                        line = grow(line);
+                    }
+                    line[length++] = c;
+                    precedingBackslash = c == '\\' && !precedingBackslash;
+                }
+            } else if (commentLine || length == 0) {
+                commentLine = false;
+                newLine = true;
+                skipWhitespace = true;
+                length = 0;
+            } else if (precedingBackslash) {
+                // the line continues on the next one, without its leading whitespaces
+                length--;
+                precedingBackslash = false;
+                skipWhitespace = true;
+                continuation = true;
+                skipLineFeed = c == '\r';
+            } else {
+                return length;
+            }
+        }
+    }
+
+    private String unescape(int offset, int length) {
+        if (converted.length < length) {
+            converted = new char[line.length];
+        }
+        int out = 0;
+        int end = offset + length;
+
+        while (offset < end) {
+            char c = line[offset++];
+            if (c == '\\' && offset < end) {
+                c = line[offset++];
+                if (c == 'u') {
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = offset < end ? Character.digit(line[offset++], 16) : -1;
+                        if (digit < 0) {
+                            throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                        }
+                        value = (value << 4) | digit;
+                    }
+                    c = (char) value;
+                } else if (c == 't') {
+                    c = '\t';
+                } else if (c == 'r') {
+                    c = '\r';
+                } else if (c == 'n') {
+                    c = '\n';
+                } else if (c == 'f') {
+                    c = '\f';
+                }
+            }
+            converted[out++] = c;
+        }
+        return new String(converted, 0, out);
+    }
+
+    private int next() throws IOException {
+        if (buffer == null || !buffer.hasRemaining()) {
+            if (position >= size) {
+                return -1;
+            }
+            long length = Math.min(WINDOW_SIZE, size - position);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            position += length;
+        }
+        return buffer.get() & 0xff;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    private static char[] grow(char[] chars) {
+        char[] grown = new char[chars.length * 2];
+        System.arraycopy(chars, 0, grown, 0, chars.length);
+        return grown;
+    }
+}
@@ -0,0 +1,23 @@
+package com.rayjars.fieldmapper;
+
+import java.io.File;
+import java.util.Set;
+
+/**
+ * Notified by a {@link ConfigReloader}, in the thread of the reload.
+ */
+public interface ReloadListener {
+
+    /**
+     * The fields of the bean mapped from the changed parameters have been assigned again.
+     *
+     * @param changedParameters the names of the parameters added, removed or modified, which are mapped by the bean
+     */
+    void reloaded(Object bean, Set<String> changedParameters);
+
+    /**
+     * The file cannot be read, or a changed value cannot be assigned. The other changed values are still assigned,
+     * and the failed one is assigned again at the next reload.
+     */
+    void reloadFailed(File file, Exception cause);
+}
@@ -0,0 +1,171 @@
+package com.rayjars.fieldmapper;
+
+import java.awt.*;
+import java.io.File;
+import java.net.URL;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formats the values of the fields, each method is the inverse of the {@link StringFieldParser} method of the type:
+ * a formatted value is parsed back to an equal value.
+ * <br/>
+ * The dates keep their milliseconds with {@link StringFieldParser#DATE_MILLSECONDS_FORMAT}. The colors are
+ * formatted without their alpha, as {@link Color#decode(String)} reads them. The elements of the arrays, lists and
+ * maps must not contain the separators.
+ */
+public class StringFieldFormatter {
+
+    private static final DatePattern DATE = DatePattern.of(StringFieldParser.DATE_MILLSECONDS_FORMAT);
+
+    public String formatLong(Long value) {
+        return value.toString();
+    }
+
+    public String formatString(String value) {
+        return value;
+    }
+
+    public String formatDouble(Double value) {
+        return value.toString();
+    }
+
+    public String formatBoolean(Boolean value) {
+        return value.toString();
+    }
+
+    public String formatInteger(Integer value) {
+        return value.toString();
+    }
+
+    public String formatFloat(Float value) {
+        return value.toString();
+    }
+
+    // ------------------------------------------------ Primitive values, without boxing
+
+    public String formatLongValue(long value) {
+        return Long.toString(value);
+    }
+
+    public String formatIntValue(int value) {
+        return Integer.toString(value);
+    }
+
+    public String formatFloatValue(float value) {
+        return Float.toString(value);
+    }
+
+    public String formatDoubleValue(double value) {
+        return Double.toString(value);
+    }
+
+    public String formatBooleanValue(boolean value) {
+        return Boolean.toString(value);
+    }
+
+    public String formatDate(Date date) {
+        return DATE.format(date);
+    }
+
+    public String formatFile(File file) {
+        return file.getPath();
+    }
+
+    public String formatUrl(URL url) {
+        return url.toExternalForm();
+    }
+
+    public String formatArray(String[] array) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(array[i]);
+        }
+        return builder.toString();
+    }
+
+    public String formatIntArray(int[] array) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(array[i]);
+        }
+        return builder.toString();
+    }
+
+    public String formatLongArray(long[] array) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(array[i]);
+        }
+        return builder.toString();
+    }
+
+    public String formatDoubleArray(double[] array) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(array[i]);
+        }
+        return builder.toString();
+    }
+
+    public String formatList(List<String> list) {
+        StringBuilder builder = new StringBuilder();
+        for (Iterator<String> iterator = list.iterator(); iterator.hasNext(); ) {
+            builder.append(iterator.next());
+            if (iterator.hasNext()) {
+                builder.append(',');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * format key=value,key=value
+     */
+    public String formatMap(Map<String, String> map) {
+        StringBuilder builder = new StringBuilder();
+        for (Iterator<Map.Entry<String, String>> iterator = map.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, String> entry = iterator.next();
+            builder.append(entry.getKey()).append('=').append(entry.getValue());
+            if (iterator.hasNext()) {
+                builder.append(',');
+            }
+        }
+        return builder.toString();
+    }
+
+    public String formatColor(Color color) {
+        return String.format("#%06X", color.getRGB() & 0xFFFFFF);
+    }
+
+    /**
+     * format name-STYLE-size, as read by {@link Font#decode(String)}
+     */
+    public String formatFont(Font font) {
+        String style;
+        if (font.isBold() && font.isItalic()) {
+            style = "BOLDITALIC";
+        } else if (font.isBold()) {
+            style = "BOLD";
+        } else if (font.isItalic()) {
+            style = "ITALIC";
+        } else {
+            style = "PLAIN";
+        }
+        return font.getName() + "-" + style + "-" + font.getSize();
+    }
+}
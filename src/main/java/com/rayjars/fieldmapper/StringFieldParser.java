@@ -7,6 +7,7 @@ import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.List;
@@ -17,8 +18,17 @@ public class StringFieldParser {
     public static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ssa";
     public static final String DATE_MILLSECONDS_FORMAT = "yyyy-MM-dd HH:mm:ss.S a";
 
+    /**
+     * Separators of {@link #parseMap(String)}, as a regular expression.
+     */
     public static final String REGEX_MAP = ",|=";
 
+    private static final String[] NO_TOKENS = new String[0];
+
+    private static final DatePattern[] DATE_PATTERNS = DatePattern.of(ONLY_DATE, DATE_FORMAT, DATE_MILLSECONDS_FORMAT);
+    private static final DatePattern[] TIME_PATTERNS = DatePattern.of(DATE_FORMAT, DATE_MILLSECONDS_FORMAT, ONLY_DATE);
+    private static final DatePattern[] MILLISECONDS_PATTERNS = DatePattern.of(DATE_MILLSECONDS_FORMAT, DATE_FORMAT, ONLY_DATE);
+
     public Long parseLong(String value){
         return Long.parseLong(value);
     }
@@ -43,24 +53,66 @@ public class StringFieldParser {
         return Float.parseFloat(value);
     }
 
+    // ------------------------------------------------ Primitive values, without boxing
+
+    public long parseLongValue(String value) {
+        return Long.parseLong(value);
+    }
+
+    public int parseIntValue(String value) {
+        return Integer.parseInt(value);
+    }
+
+    public float parseFloatValue(String value) {
+        return Float.parseFloat(value);
+    }
+
+    public double parseDoubleValue(String value) {
+        return Double.parseDouble(value);
+    }
+
+    public boolean parseBooleanValue(String value) {
+        return Boolean.parseBoolean(value);
+    }
+
     public Date parseDate(String str) throws ParseException {
-        return parseDate(new String[]{DATE_FORMAT, DATE_MILLSECONDS_FORMAT, ONLY_DATE}, str);
+        // the pattern matching the shape of the value is tried first, then the others in the usual order
+        int space = str.indexOf(' ');
+        if (space < 0) {
+            return parseDate(DATE_PATTERNS, str);
+        } else if (str.indexOf('.', space) > 0) {
+            return parseDate(MILLISECONDS_PATTERNS, str);
+        }
+        return parseDate(TIME_PATTERNS, str);
     }
 
     public Date parseDate(String[] formats, String str) throws ParseException {
-        ParseException current = null;
-        SimpleDateFormat sdf = new SimpleDateFormat();
+        // the formats of the caller are not kept, they are built for this call only
+        ParsePosition position = new ParsePosition(0);
 
         for (String format : formats) {
-            sdf.applyPattern(format);
+            Date date = DatePattern.parse(new SimpleDateFormat(format), str, position);
+            if (date != null) {
+                return date;
+            }
+        }
+        throw unparseableDate(str, position);
+    }
+
+    private static Date parseDate(DatePattern[] patterns, String str) throws ParseException {
+        ParsePosition position = new ParsePosition(0);
 
-            try {
-                return sdf.parse(str);
-            } catch (ParseException e) {
-                current = e;
+        for (DatePattern pattern : patterns) {
+            Date date = pattern.parse(str, position);
+            if (date != null) {
+                return date;
             }
         }
-        throw current;
+        throw unparseableDate(str, position);
+    }
+
+    private static ParseException unparseableDate(String str, ParsePosition position) {
+        return new ParseException("Unparseable date: \"" + str + "\"", position.getErrorIndex());
     }
 
 
@@ -75,8 +127,20 @@ public class StringFieldParser {
 
 
 
+    /**
+     * Splits on the commas as {@link String#split(String) str.split(",")}: the trailing empty values are removed.
+     */
     public String[] parseArray(String str) {
-        return str.split(",");
+        Tokens tokens = new Tokens(str, false);
+        if (tokens.count() == 0) {
+            return NO_TOKENS;
+        }
+
+        String[] array = new String[tokens.count()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = tokens.next();
+        }
+        return array;
     }
 
 
@@ -88,22 +152,88 @@ public class StringFieldParser {
     /**
      * format key=value,key=value
      * A=4,H=X,PO=87
-     *
+     * <br/>
+     * The commas and the equal signs are both separators, as {@link String#split(String) str.split(REGEX_MAP)}:
+     * the values are paired in order, and a trailing key without value is ignored.
      *
      * @param str
      * @return
      */
     public Map<String, String> parseMap(String str) {
-        String[] tokens = str.split(REGEX_MAP);
+        Tokens tokens = new Tokens(str, true);
         Map<String, String> map = new HashMap<>();
-        for (int i=0; i< tokens.length-1; ) {
-            String key = tokens[i++];
-            String value = tokens[i++];
-            map.put(key, value);
+        while (tokens.remaining() >= 2) {
+            String key = tokens.next();
+            map.put(key, tokens.next());
         }
         return map;
     }
 
+    /**
+     * Values of a list or a map, scanned as {@link String#split(String)} without regular expression nor array:
+     * the trailing empty values are removed, and an empty string is a single empty value.
+     */
+    static final class Tokens {
+        private final String str;
+        private final boolean map;
+
+        // the end of the last value, the separators following it only split empty values
+        private final int end;
+        private final int count;
+
+        private int start;
+        private int remaining;
+
+        /**
+         * @param map true if the equal signs separate the values as the commas
+         */
+        Tokens(String str, boolean map) {
+            this.str = str;
+            this.map = map;
+
+            int last = str.length();
+            while (last > 0 && isSeparator(str.charAt(last - 1))) {
+                last--;
+            }
+            this.end = last;
+
+            int values = end == 0 && !str.isEmpty() ? 0 : 1;
+            for (int i = 0; i < end; i++) {
+                if (isSeparator(str.charAt(i))) {
+                    values++;
+                }
+            }
+            this.count = values;
+            this.remaining = values;
+        }
+
+        int count() {
+            return count;
+        }
+
+        int remaining() {
+            return remaining;
+        }
+
+        String next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            int next = start;
+            while (next < end && !isSeparator(str.charAt(next))) {
+                next++;
+            }
+            String token = str.substring(start, next);
+            start = next + 1;
+            remaining--;
+            return token;
+        }
+
+        private boolean isSeparator(char c) {
+            return c == ',' || map && c == '=';
+        }
+    }
+
     public Color parseColor(String color){
         return Color.decode(color);
     }
@@ -0,0 +1,67 @@
+package com.rayjars.fieldmapper;
+
+/**
+ * Converts a parameter value to a field type, see {@link ConverterRegistry}.
+ * <br/>
+ * An {@link InvalidFieldValueException} is reported according to
+ * {@link FieldValueMapper#setThrowExceptionInvalidValueParameter(boolean)}, an {@link InvalidFieldException} or a
+ * runtime exception is propagated, and any other exception is wrapped in an {@link InvalidFieldException}.
+ * <br/>
+ * The primitive fields are assigned without boxing when their converter extends {@link OfInt}, {@link OfLong},
+ * {@link OfFloat}, {@link OfDouble} or {@link OfBoolean}.
+ *
+ * @param <T> the converted type
+ */
+public interface TypeConverter<T> {
+
+    /**
+     * @param parser the parser of the mapper
+     * @param value  the value to convert, a {@link Param} or the default value of the field
+     */
+    T convert(ParamFieldParser parser, Object value) throws Exception;
+
+    abstract class OfInt implements TypeConverter<Integer> {
+        public abstract int convertInt(ParamFieldParser parser, Object value) throws Exception;
+
+        @Override
+        public Integer convert(ParamFieldParser parser, Object value) throws Exception {
+            return convertInt(parser, value);
+        }
+    }
+
+    abstract class OfLong implements TypeConverter<Long> {
+        public abstract long convertLong(ParamFieldParser parser, Object value) throws Exception;
+
+        @Override
+        public Long convert(ParamFieldParser parser, Object value) throws Exception {
+            return convertLong(parser, value);
+        }
+    }
+
+    abstract class OfFloat implements TypeConverter<Float> {
+        public abstract float convertFloat(ParamFieldParser parser, Object value) throws Exception;
+
+        @Override
+        public Float convert(ParamFieldParser parser, Object value) throws Exception {
+            return convertFloat(parser, value);
+        }
+    }
+
+    abstract class OfDouble implements TypeConverter<Double> {
+        public abstract double convertDouble(ParamFieldParser parser, Object value) throws Exception;
+
+        @Override
+        public Double convert(ParamFieldParser parser, Object value) throws Exception {
+            return convertDouble(parser, value);
+        }
+    }
+
+    abstract class OfBoolean implements TypeConverter<Boolean> {
+        public abstract boolean convertBoolean(ParamFieldParser parser, Object value) throws Exception;
+
+        @Override
+        public Boolean convert(ParamFieldParser parser, Object value) throws Exception {
+            return convertBoolean(parser, value);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.rayjars.fieldmapper;
+
+/**
+ * Formats the value of a field type, the inverse of its {@link TypeConverter}, see
+ * {@link FieldValueMapper#mapObjectToParam(Object)}.
+ * <br/>
+ * An exception is wrapped in an {@link InvalidFieldException}, unless it is a runtime exception.
+ *
+ * @param <T> the formatted type
+ */
+public interface TypeFormatter<T> {
+
+    /**
+     * @param formatter the formatter of the mapper
+     * @param value     the value of the field, never null
+     */
+    String format(StringFieldFormatter formatter, T value) throws Exception;
+}
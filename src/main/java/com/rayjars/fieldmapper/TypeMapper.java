@@ -0,0 +1,135 @@
+package com.rayjars.fieldmapper;
+
+/**
+ * Mapper dedicated to one annotated type.
+ * <br/>
+ * The static helpers give implementations the same semantics as {@link FieldValueMapper} for
+ * <code>required</code>, <code>defaultValue</code> and the invalid value exceptions, and the same callbacks to the
+ * {@link MappingListener} of the mapper.
+ *
+ * @param <T> the mapped type
+ */
+public abstract class TypeMapper<T> {
+
+    private final Class<T> type;
+
+    protected TypeMapper(Class<T> type) {
+        this.type = type;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Maps the parameters to the fields of the instance.
+     *
+     * @param mapper provides the parser and the exception policy
+     */
+    public abstract void map(FieldValueMapper mapper, Param parameters, T instance) throws InvalidFieldException;
+
+    /**
+     * @return the child param matching the name, the default value if there is none, or null if there is no value at all
+     * @throws InvalidFieldException if the parameter is required and there is no value provided
+     */
+    protected static Object value(Param parameters, String name, String defaultValue, boolean required) throws InvalidFieldException {
+        Param paramValue = parameters.getChild(name);
+        Object value = paramValue != null ? paramValue : defaultValue;
+
+        if (required && value == null) {
+            throw new InvalidFieldException("The parameter " + name + " is required. Cannot be null");
+        }
+        return value;
+    }
+
+    /**
+     * {@link #value(Param, String, String, boolean)} reporting the default values and the missing ones.
+     *
+     * @param listener the listener of the mapper, may be null
+     */
+    protected static Object value(MappingListener listener, Class<?> type, Param parameters, String name, String defaultValue, boolean required) throws InvalidFieldException {
+        if (listener != null && parameters.getChild(name) == null) {
+            if (defaultValue != null) {
+                listener.defaultApplied(type, name, defaultValue);
+            } else if (required) {
+                listener.requiredMissing(type, name);
+            }
+        }
+        return value(parameters, name, defaultValue, required);
+    }
+
+    /**
+     * @return the start of the conversion of a field, 0 without listener: the clock is only read for a listener
+     */
+    protected static long started(MappingListener listener) {
+        return listener == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Reports a field converted and assigned since its start, see {@link #started(MappingListener)}.
+     */
+    protected static void mapped(MappingListener listener, Class<?> type, String name, long start) {
+        if (listener != null) {
+            listener.fieldMapped(type, name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Reports a value which cannot be converted or assigned.
+     *
+     * @return the cause, to rethrow
+     */
+    protected static <E extends Exception> E failed(MappingListener listener, Class<?> type, String name, E cause) {
+        if (listener != null) {
+            listener.conversionFailed(type, name, cause);
+        }
+        return cause;
+    }
+
+    /**
+     * Converts a value with the converter registered for the type in the mapper,
+     * or maps it as a nested object if the type has annotated fields.
+     *
+     * @throws InvalidFieldValueException if the value is invalid, see {@link #invalidValue}
+     * @throws InvalidFieldException      if the type is not supported or the conversion failed
+     */
+    protected static Object convert(FieldValueMapper mapper, String name, Class<?> type, Object value) throws InvalidFieldException {
+        TypeConverter<?> converter = mapper.getConverterRegistry().find(type);
+
+        if (converter == null) {
+            MappingPlan plan = mapper.getConverterRegistry().plan(type);
+            if (!plan.isNestable()) {
+                throw notAvailable(type);
+            }
+            return mapper.create(plan, NestedMapping.node(value));
+        }
+        return convert(mapper.getParser(), name, converter, value);
+    }
+
+    static Object convert(ParamFieldParser parser, String name, TypeConverter<?> converter, Object value) throws InvalidFieldException {
+        try {
+            return converter.convert(parser, value);
+        } catch (InvalidFieldException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw cannotAssign(name, e);
+        }
+    }
+
+    protected static InvalidFieldException cannotAssign(String name, Throwable cause) {
+        return new InvalidFieldException("Cannot assign value to the parameter " + name + ". Cause by " + cause.getMessage(), cause);
+    }
+
+    protected static InvalidFieldException notAvailable(Class<?> fieldType) {
+        return new InvalidFieldException("Type " + fieldType + " not available for property mapping.");
+    }
+
+    /**
+     * Rethrows an invalid value unless the mapper ignores them.
+     */
+    protected static void invalidValue(FieldValueMapper mapper, String name, InvalidFieldValueException cause) throws InvalidFieldException {
+        if (mapper.isThrowExceptionInvalidValueParameter()) {
+            throw new InvalidFieldException("The parameter " + name + " is required and cannot assign value. Cause by " + cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.rayjars.fieldmapper;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Errors of all the fields of an object, see {@link FieldValueMapper#validate(Param, Object)}.
+ * <br/>
+ * The errors are recorded without exception, the messages are the ones of the exceptions thrown by
+ * {@link FieldValueMapper#mapParamToObject(Param, Object)} and are built when they are read.
+ */
+public final class ValidationResult {
+
+    static final ValidationResult VALID = new ValidationResult(Collections.<FieldError>emptyList());
+
+    private final List<FieldError> errors;
+
+    ValidationResult(List<FieldError> errors) {
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    /**
+     * @return the errors, in the order of the fields
+     */
+    public List<FieldError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return the error of the parameter, null if its field is valid
+     */
+    public FieldError getError(String name) {
+        for (FieldError error : errors) {
+            if (error.getName().equals(name)) {
+                return error;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationResult{" + errors + "}";
+    }
+
+    /**
+     * The value of a parameter is missing, or cannot be assigned.
+     */
+    public static final class FieldError {
+
+        private final String name;
+
+        private final Exception cause;
+
+        FieldError(String name, Exception cause) {
+            this.name = name;
+            this.cause = cause;
+        }
+
+        /**
+         * @return the name of the parameter
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the exception of the conversion, null if the parameter is required and missing
+         */
+        public Exception getCause() {
+            return cause;
+        }
+
+        public String getMessage() {
+            if (cause == null) {
+                return "The parameter " + name + " is required. Cannot be null";
+            } else if (cause instanceof InvalidFieldValueException) {
+                return "The parameter " + name + " is required and cannot assign value. Cause by " + cause.getMessage();
+            } else if (cause instanceof InvalidFieldException) {
+                return cause.getMessage();
+            }
+            return "Cannot assign value to the parameter " + name + ". Cause by " + cause.getMessage();
+        }
+
+        @Override
+        public String toString() {
+            return getMessage();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.rayjars.fieldmapper;
+
+/**
+ * Runs the {@link FieldMapperTest} suite against the compiled mappers.
+ */
+public class CompiledFieldMapperTest extends FieldMapperTest {
+
+    @Override
+    protected FieldValueMapper createMapper() {
+        FieldValueMapper mapper = new FieldValueMapper();
+        mapper.setCompiledMappers(true);
+        return mapper;
+    }
+}
@@ -0,0 +1,14 @@
+package com.rayjars.fieldmapper;
+
+/**
+ * Runs the {@link MappingListenerTest} suite against the compiled mappers.
+ */
+public class CompiledMappingListenerTest extends MappingListenerTest {
+
+    @Override
+    protected FieldValueMapper createMapper() {
+        FieldValueMapper mapper = new FieldValueMapper();
+        mapper.setCompiledMappers(true);
+        return mapper;
+    }
+}
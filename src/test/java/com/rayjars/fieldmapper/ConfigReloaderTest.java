@@ -0,0 +1,272 @@
+package com.rayjars.fieldmapper;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ConfigReloaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    private FieldValueMapper mapper;
+
+    private AtomicInteger conversions;
+
+    @Before
+    public void createMapper() throws IOException {
+        file = folder.newFile("config.properties");
+        conversions = new AtomicInteger();
+
+        mapper = new FieldValueMapper();
+        mapper.registerConverter(String.class, new TypeConverter<String>() {
+            @Override
+            public String convert(ParamFieldParser parser, Object value) {
+                conversions.incrementAndGet();
+                return parser.parseString(value);
+            }
+        });
+    }
+
+    @Test
+    public void shouldRemapOnlyChangedFields() throws Exception {
+        write("host=primary\nname=app\nport=80\n");
+        ConfigReloader reloader = new ConfigReloader(mapper, file);
+        Settings settings = new Settings();
+        reloader.bind(settings);
+        conversions.set(0);
+
+        final List<Set<String>> notified = new ArrayList<>();
+        reloader.addListener(new ReloadListener() {
+            @Override
+            public void reloaded(Object bean, Set<String> changedParameters) {
+                notified.add(changedParameters);
+            }
+
+            @Override
+            public void reloadFailed(File file, Exception cause) {
+                throw new AssertionError(cause);
+            }
+        });
+
+        write("host=replica\nname=app\nport=80\nunmapped=1\n");
+
+        assertThat(reloader.reload(), contains("host", "unmapped"));
+        assertThat(settings.host, is("replica"));
+        assertThat(settings.name, is("app"));
+        assertThat(conversions.get(), is(1));
+        assertThat(notified.size(), is(1));
+        assertThat(notified.get(0), contains("host"));
+    }
+
+    @Test
+    public void shouldKeepSemanticsOfRemovedParameters() throws Exception {
+        write("host=primary\nname=app\nport=8080\n");
+        ConfigReloader reloader = new ConfigReloader(mapper, file);
+        Settings settings = new Settings();
+        reloader.bind(settings);
+
+        write("host=primary\n");
+        reloader.reload();
+
+        // without a value the field is unchanged, with a default value the default is assigned
+        assertThat(settings.name, is("app"));
+        assertThat(settings.port, is(80));
+    }
+
+    @Test
+    public void shouldReportInvalidValue() throws Exception {
+        write("host=primary\nport=80\n");
+        ConfigReloader reloader = new ConfigReloader(mapper, file);
+        Settings settings = new Settings();
+        reloader.bind(settings);
+
+        final List<Exception> failures = new ArrayList<>();
+        reloader.addListener(new ReloadListener() {
+            @Override
+            public void reloaded(Object bean, Set<String> changedParameters) {
+            }
+
+            @Override
+            public void reloadFailed(File file, Exception cause) {
+                failures.add(cause);
+            }
+        });
+
+        write("host=primary\nport=eighty\n");
+        reloader.reload();
+
+        assertThat(failures.size(), is(1));
+        assertThat(failures.get(0), instanceOf(NumberFormatException.class));
+        assertThat(settings.port, is(80));
+    }
+
+    @Test
+    public void shouldAssignValidChangesAndRetryInvalidOne() throws Exception {
+        write("host=primary\nport=80\n");
+        ConfigReloader reloader = new ConfigReloader(mapper, file);
+        Settings settings = new Settings();
+        reloader.bind(settings);
+
+        final List<Exception> failures = new ArrayList<>();
+        final List<Set<String>> notified = new ArrayList<>();
+        reloader.addListener(new ReloadListener() {
+            @Override
+            public void reloaded(Object bean, Set<String> changedParameters) {
+                notified.add(changedParameters);
+            }
+
+            @Override
+            public void reloadFailed(File file, Exception cause) {
+                failures.add(cause);
+            }
+        });
+
+        write("port=eighty\nhost=replica\n");
+
+        assertThat(reloader.reload(), containsInAnyOrder("host", "port"));
+        assertThat(settings.host, is("replica"));
+        assertThat(settings.port, is(80));
+        assertThat(failures.size(), is(1));
+        assertThat(notified.get(0), contains("host"));
+        assertThat(reloader.getParameters().getChild("port").getValue(), is("80"));
+
+        // the invalid value is retried until it is fixed
+        assertThat(reloader.reload(), contains("port"));
+        assertThat(failures.size(), is(2));
+
+        write("port=8080\nhost=replica\n");
+        assertThat(reloader.reload(), contains("port"));
+        assertThat(settings.port, is(8080));
+        assertThat(failures.size(), is(2));
+    }
+
+    @Test
+    public void shouldRetryFailureOnlyForBeanWhichFailed() throws Exception {
+        write("host=primary\nport=80\n");
+        ConfigReloader reloader = new ConfigReloader(mapper, file);
+        Settings settings = new Settings();
+        TextSettings text = new TextSettings();
+        reloader.bind(settings).bind(text);
+
+        final List<Object> notified = new ArrayList<>();
+        final List<Exception> failures = new ArrayList<>();
+        reloader.addListener(new ReloadListener() {
+            @Override
+            public void reloaded(Object bean, Set<String> changedParameters) {
+                notified.add(bean);
+            }
+
+            @Override
+            public void reloadFailed(File file, Exception cause) {
+                failures.add(cause);
+            }
+        });
+
+        write("host=primary\nport=eighty\n");
+        reloader.reload();
+
+        assertThat(settings.port, is(80));
+        assertThat(text.port, is("eighty"));
+        assertThat(notified, contains((Object) text));
+        assertThat(failures.size(), is(1));
+
+        // only the bean which failed is mapped again
+        text.port = "assigned once";
+        reloader.reload();
+        assertThat(text.port, is("assigned once"));
+        assertThat(notified.size(), is(1));
+        assertThat(failures.size(), is(2));
+
+        write("host=primary\nport=8080\n");
+        reloader.reload();
+        assertThat(settings.port, is(8080));
+        assertThat(text.port, is("8080"));
+        assertThat(notified, contains((Object) text, settings, text));
+    }
+
+    @Test
+    public void shouldBindPlanOfProxyTarget() throws Exception {
+        write("host=primary\n");
+        ConfigReloader reloader = new ConfigReloader(mapper, file);
+        Settings$$EnhancerByCGLIB$$3c2d proxy = new Settings$$EnhancerByCGLIB$$3c2d();
+        reloader.bind(proxy);
+
+        write("host=replica\nport=8080\n");
+        reloader.reload();
+
+        Settings settings = proxy;
+        assertThat(settings.host, is("replica"));
+        assertThat(settings.port, is(8080));
+        assertThat(proxy.callback, nullValue());
+    }
+
+    @Test
+    public void shouldReloadWhenFileIsModified() throws Exception {
+        write("host=primary\n");
+        final Settings settings = new Settings();
+        final CountDownLatch reloaded = new CountDownLatch(1);
+
+        try (ConfigReloader reloader = new ConfigReloader(mapper, file)) {
+            reloader.bind(settings).addListener(new ReloadListener() {
+                @Override
+                public void reloaded(Object bean, Set<String> changedParameters) {
+                    reloaded.countDown();
+                }
+
+                @Override
+                public void reloadFailed(File file, Exception cause) {
+                }
+            }).start();
+
+            write("host=replica\n");
+
+            assertThat(reloaded.await(30, TimeUnit.SECONDS), is(true));
+            assertThat(settings.host, is("replica"));
+        }
+    }
+
+    private void write(String content) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes("ISO-8859-1"));
+        }
+    }
+
+    private static class Settings {
+        @Field(required = true)
+        private volatile String host;
+
+        @Field
+        private String name;
+
+        @Field(defaultValue = "80")
+        private int port;
+    }
+
+    private static class TextSettings {
+        @Field
+        private String port;
+    }
+
+    private static class Settings$$EnhancerByCGLIB$$3c2d extends Settings {
+        // unannotated state of the proxy
+        private Object callback;
+    }
+}
@@ -0,0 +1,96 @@
+package com.rayjars.fieldmapper;
+
+import org.junit.Test;
+
+import java.awt.*;
+import java.net.URL;
+import java.util.Date;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ConversionCacheTest {
+
+    @Test
+    public void shouldCountHitsAndMisses() {
+        ConversionCache cache = new ConversionCache(100);
+
+        assertThat(cache.get(Color.class, "#D06000"), nullValue());
+        cache.put(Color.class, "#D06000", Color.decode("#D06000"));
+        assertThat(cache.get(Color.class, "#D06000"), is(Color.decode("#D06000")));
+        assertThat(cache.get(Font.class, "#D06000"), nullValue());
+
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(2L));
+        assertThat(cache.getHitRate(), closeTo(1 / 3.0, 0.001));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void shouldBoundSize() {
+        ConversionCache cache = new ConversionCache(64);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put(String.class, "key" + i, "value" + i);
+        }
+
+        assertThat(cache.size(), lessThanOrEqualTo(64));
+        assertThat(cache.getEvictionCount(), is(1000L - cache.size()));
+    }
+
+    @Test
+    public void shouldBoundSizeNotDividedBySegments() {
+        for (int maximumSize : new int[]{1, 3, 20, 33, 100, 1000}) {
+            ConversionCache cache = new ConversionCache(maximumSize);
+
+            for (int i = 0; i < maximumSize * 20; i++) {
+                cache.put(String.class, "key" + i, "value" + i);
+            }
+
+            assertThat(cache.toString(), cache.size(), lessThanOrEqualTo(cache.getMaximumSize()));
+            assertThat(cache.toString(), cache.size(), greaterThan(cache.getMaximumSize() * 3 / 4));
+        }
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() {
+        ConversionCache lru = new ConversionCache(1, ConversionCache.Eviction.LRU);
+        lru.put(String.class, "first", "1");
+        lru.put(String.class, "second", "2");
+
+        assertThat(lru.get(String.class, "first"), nullValue());
+        assertThat(lru.get(String.class, "second"), is("2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMutableTypes() {
+        new ConversionCache(10).put(Date.class, "2005-10-06", new Date());
+    }
+
+    @Test
+    public void shouldShareParsedValues() throws Exception {
+        ConversionCache cache = new ConversionCache(16);
+        FieldValueMapper mapper = new FieldValueMapper();
+        mapper.setParser(new CachingParamFieldParser(cache));
+
+        Param parameters = new Param("root").addChild("font", "Courier-PLAIN-24").addChild("url", "http://www.google.ca");
+        Styled first = new Styled();
+        Styled second = new Styled();
+        mapper.mapParamToObject(parameters, first);
+        mapper.mapParamToObject(parameters, second);
+
+        assertThat(second.font, sameInstance(first.font));
+        assertThat(second.url, sameInstance(first.url));
+        assertThat(second.font, equalTo(Font.decode("Courier-PLAIN-24")));
+        assertThat(cache.getHitCount(), is(2L));
+        assertThat(cache.getMissCount(), is(2L));
+    }
+
+    private static class Styled {
+        @Field
+        private Font font;
+
+        @Field
+        private URL url;
+    }
+}
@@ -14,6 +14,8 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -37,10 +39,14 @@ public class FieldMapperTest {
         annotatedObject = new AnnotatedObject();
         annotatedObjectWithRequired = new AnnotatedObjectWithRequired();
 
-        mapper = new FieldValueMapper();
+        mapper = createMapper();
 
     }
 
+    protected FieldValueMapper createMapper() {
+        return new FieldValueMapper();
+    }
+
     @Test
     public void shouldInjectInteger() throws InvalidFieldException {
         parameters.addChild("test.int", String.valueOf(Integer.MAX_VALUE));
@@ -367,10 +373,538 @@ public class FieldMapperTest {
     }
 
 
+    @Test
+    public void shouldInjectWithRegisteredConverter() throws InvalidFieldException {
+        parameters.addChild("id", "6ba7b810-9dad-11d1-80b4-00c04fd430c8");
+        parameters.addChild("math", "ignored");
+
+        mapper.registerConverter(UUID.class, new TypeConverter<UUID>() {
+            @Override
+            public UUID convert(ParamFieldParser parser, Object value) {
+                return UUID.fromString(parser.parseString(value));
+            }
+        });
+        mapper.registerConverter(Math.class, new TypeConverter<Math>() {
+            @Override
+            public Math convert(ParamFieldParser parser, Object value) {
+                return null;
+            }
+        });
+
+        AnnotatedObjectWithConverter annotatedObjectWithConverter = new AnnotatedObjectWithConverter();
+        mapper.mapParamToObject(parameters, annotatedObjectWithConverter);
+
+        assertThat(annotatedObjectWithConverter.id, is(UUID.fromString("6ba7b810-9dad-11d1-80b4-00c04fd430c8")));
+    }
+
+    @Test
+    public void shouldNotShareRegisteredConverter() throws InvalidFieldException {
+        expectedException.expect(InvalidFieldException.class);
+        expectedException.expectMessage(containsString("Type class java.util.UUID not available for property mapping."));
+
+        parameters.addChild("id", "6ba7b810-9dad-11d1-80b4-00c04fd430c8");
+
+        new FieldValueMapper().registerConverter(UUID.class, new TypeConverter<UUID>() {
+            @Override
+            public UUID convert(ParamFieldParser parser, Object value) {
+                return UUID.fromString(parser.parseString(value));
+            }
+        });
+
+        mapper.mapParamToObject(parameters, new AnnotatedObjectWithConverter());
+    }
+
+    @Test
+    public void shouldWrapRegisteredConverterException() throws InvalidFieldException {
+        expectedException.expect(InvalidFieldException.class);
+        expectedException.expectMessage(containsString("Cannot assign value to the parameter id"));
+        expectedException.expectCause(isA(java.io.IOException.class));
+
+        parameters.addChild("id", "6ba7b810-9dad-11d1-80b4-00c04fd430c8");
+
+        mapper.registerConverter(UUID.class, new TypeConverter<UUID>() {
+            @Override
+            public UUID convert(ParamFieldParser parser, Object value) throws java.io.IOException {
+                throw new java.io.IOException("unreadable");
+            }
+        });
+
+        mapper.mapParamToObject(parameters, new AnnotatedObjectWithConverter());
+    }
+
+    @Test
+    public void shouldInjectPrimitiveWithoutBoxing() throws InvalidFieldException {
+        parameters.addChild("size", "2k");
+
+        mapper.registerConverter(long.class, new TypeConverter.OfLong() {
+            @Override
+            public long convertLong(ParamFieldParser parser, Object value) {
+                String size = parser.parseString(value);
+                return Long.parseLong(size.substring(0, size.length() - 1)) * 1024;
+            }
+
+            @Override
+            public Long convert(ParamFieldParser parser, Object value) {
+                throw new AssertionError("primitive field boxed");
+            }
+        });
+
+        AnnotatedObjectWithPrimitive annotatedObjectWithPrimitive = new AnnotatedObjectWithPrimitive();
+        mapper.mapParamToObject(parameters, annotatedObjectWithPrimitive);
+
+        assertThat(annotatedObjectWithPrimitive.size, is(2048L));
+    }
+
+    @Test
+    public void shouldMapAllInOrderWithErrorsPerElement() {
+        List<Param> records = Arrays.asList(
+                new Param("record").addChild("id", "1").addChild("label", "first"),
+                new Param("record").addChild("id", "2"),
+                new Param("record").addChild("id", "three").addChild("label", "third"),
+                new Param("record").addChild("id", "4").addChild("label", "fourth"));
+
+        List<MappingResult<BatchRecord>> results = mapper.mapAll(records, batchRecordFactory());
+
+        assertThat(results.size(), is(4));
+        assertThat(results.get(0).getValue().id, is(1));
+        assertThat(results.get(0).getValue().label, is("first"));
+        assertThat(results.get(1).isSuccess(), is(false));
+        assertThat(results.get(1).getError().getMessage(), is("The parameter label is required. Cannot be null"));
+        assertThat(results.get(2).getError(), instanceOf(NumberFormatException.class));
+        assertThat(results.get(2).getParameters(), sameInstance(records.get(2)));
+        assertThat(results.get(3).getValue().label, is("fourth"));
+    }
+
+    @Test
+    public void shouldMapAllWithExecutor() throws InterruptedException {
+        List<Param> records = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            records.add(new Param("record").addChild("id", String.valueOf(i)).addChild("label", "record " + i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<MappingResult<BatchRecord>> results = mapper.mapAll(records, batchRecordFactory(), executor);
+
+            assertThat(results.size(), is(1000));
+            for (int i = 0; i < 1000; i++) {
+                assertThat(results.get(i).getValue().id, is(i));
+                assertThat(results.get(i).getValue().label, is("record " + i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private InstanceFactory<BatchRecord> batchRecordFactory() {
+        return new InstanceFactory<BatchRecord>() {
+            @Override
+            public BatchRecord newInstance() {
+                return new BatchRecord();
+            }
+        };
+    }
+
+    @Test
+    public void shouldMapNestedObjects() throws InvalidFieldException {
+        parameters.addChild("host", "primary")
+                .addChild(new Param("pool").addChild("max", "10"))
+                .addChild(new Param("replicas")
+                        .addChild(new Param("replica").addChild("host", "replica1"))
+                        .addChild(new Param("replica").addChild("host", "replica2")
+                                .addChild(new Param("pool").addChild("max", "5").addChild("min", "2"))))
+                .addChild(new Param("pools")
+                        .addChild(new Param("read").addChild("max", "20"))
+                        .addChild(new Param("write").addChild("max", "4")));
+
+        Server server = new Server();
+        mapper.mapParamToObject(parameters, server);
+
+        assertThat(server.host, is("primary"));
+        assertThat(server.pool.max, is(10));
+        assertThat(server.pool.min, is(1));
+        assertThat(server.replicas.size(), is(2));
+        assertThat(server.replicas.get(0).host, is("replica1"));
+        assertThat(server.replicas.get(0).pool, nullValue());
+        assertThat(server.replicas.get(1).pool.min, is(2));
+        assertThat(server.pools.keySet(), contains("read", "write"));
+        assertThat(server.pools.get("write").max, is(4));
+    }
+
+    @Test
+    public void shouldMapNestedObjectFromDottedKeys() throws InvalidFieldException {
+        Properties properties = new Properties();
+        properties.setProperty("host", "primary");
+        properties.setProperty("pool.max", "8");
+
+        Server server = new Server();
+        mapper.mapParamToObject(new Param("root", properties).getHierarchy().getRoot(), server);
+
+        assertThat(server.pool.max, is(8));
+    }
+
+    @Test
+    public void shouldValidateNestedRequiredField() throws InvalidFieldException {
+        expectedException.expect(InvalidFieldException.class);
+        expectedException.expectMessage("The parameter host is required. Cannot be null");
+
+        parameters.addChild("host", "primary")
+                .addChild(new Param("replicas").addChild(new Param("replica").addChild("port", "80")));
+
+        mapper.mapParamToObject(parameters, new Server());
+    }
+
+    @Test
+    public void shouldCollectAllFieldErrors() {
+        parameters.addChild("myString", "value")
+                .addChild(new Param("testList"))
+                .addChild("test.int", "ten");
+
+        ValidationResult result = mapper.validate(parameters, annotatedObjectWithRequired);
+
+        assertThat(result.isValid(), is(false));
+        assertThat(annotatedObjectWithRequired.getMyString(), is("value"));
+        assertThat(annotatedObjectWithRequired.getTestDefaultString(), is("Hello World"));
+        assertThat(result.getErrors().size(), is(3));
+        assertThat(result.getError("test.String").getMessage(), is("The parameter test.String is required. Cannot be null"));
+        assertThat(result.getError("test.String").getCause(), nullValue());
+        assertThat(result.getError("testList").getMessage(), is("The parameter testList is required and cannot assign value. Cause by The param doesnt contains any childrens !"));
+        assertThat(result.getError("testList").getCause().getStackTrace().length, is(0));
+        assertThat(result.getError("testMap").getMessage(), is("The parameter testMap is required. Cannot be null"));
+    }
+
+    @Test
+    public void shouldCollectConversionErrors() {
+        parameters.addChild("test.int", "ten").addChild("test.long", "eleven");
+
+        ValidationResult result = mapper.validate(parameters, annotatedObject);
+
+        assertThat(result.getErrors().size(), is(2));
+        assertThat(result.getError("test.int").getCause(), instanceOf(NumberFormatException.class));
+        assertThat(result.getError("test.long").getMessage(), startsWith("Cannot assign value to the parameter test.long. Cause by"));
+        assertThat(annotatedObject.getTestDefaultInteger(), is(1));
+    }
+
+    @Test
+    public void shouldIgnoreInvalidValuesWhenValidating() {
+        mapper.setThrowExceptionInvalidValueParameter(false);
+        parameters.addChild("test.String", "value")
+                .addChild(new Param("testList"))
+                .addChild(new Param("testMap"));
+
+        ValidationResult result = mapper.validate(parameters, annotatedObjectWithRequired);
+
+        assertThat(result.isValid(), is(true));
+        assertThat(result.getErrors(), is(empty()));
+        assertThat(annotatedObjectWithRequired.getTestString(), is("value"));
+    }
+
+    @Test
+    public void shouldInjectTypedArraysAndCollections() throws InvalidFieldException {
+        parameters.addChild(new Param("sizes").addChild("0", "4096").addChild("1", "8192"))
+                .addChild(new Param("weights").addChild("0", "0.5").addChild("1", "1.5"))
+                .addChild(new Param("ports").addChild("0", "80").addChild("1", "443"))
+                .addChild(new Param("offsets").addChild("first", "10").addChild("second", "20"))
+                .addChild(new Param("ratios").addChild("cpu", "0.75").addChild("memory", "0.5"))
+                .addChild(new Param("labels").addChild("0", "1").addChild("1", "2"));
+
+        TypedCollections typed = new TypedCollections();
+        mapper.mapParamToObject(parameters, typed);
+
+        assertThat(typed.ids, equalTo(new int[]{1, 2, 3}));
+        assertThat(typed.sizes, equalTo(new long[]{4096, 8192}));
+        assertThat(typed.weights, equalTo(new double[]{0.5, 1.5}));
+        assertThat(typed.ports, arrayContaining(80, 443));
+        assertThat(typed.offsets, contains(10L, 20L));
+        assertThat(typed.ratios, allOf(hasEntry("cpu", 0.75), hasEntry("memory", 0.5)));
+        assertThat(typed.timeouts, contains(30L, 60L));
+        assertThat(typed.limits, allOf(hasEntry("read", 0.25), hasEntry("write", 0.5)));
+        assertThat(typed.labels, contains((Object) "1", "2"));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfTypedElementInvalid() throws InvalidFieldException {
+        expectedException.expect(NumberFormatException.class);
+
+        parameters.addChild(new Param("offsets").addChild("0", "10").addChild("1", "ten"));
+
+        mapper.mapParamToObject(parameters, new TypedCollections());
+    }
+
+    @Test
+    public void shouldMapInheritedFieldsOfProxy() throws InvalidFieldException {
+        parameters.addChild("host", "primary").addChild("port", "8080").addChild("region", "eu");
+
+        ServerProxy$$EnhancerByCGLIB$$7a1b proxy = new ServerProxy$$EnhancerByCGLIB$$7a1b();
+        mapper.mapParamToObject(parameters, proxy);
+
+        assertThat(proxy.host, is("primary"));
+        assertThat(proxy.port, is(8080));
+        assertThat(proxy.region, is("eu"));
+        assertThat(mapper.mapObjectToParam(proxy).getChild("region").getValue(), is("eu"));
+    }
+
+    static class RegionServer extends Server {
+        @Field
+        String region;
+    }
+
+    static class ServerProxy$$EnhancerByCGLIB$$7a1b extends RegionServer {
+        // unannotated state of the proxy
+        Object callback;
+    }
+
+    static class TypedCollections {
+        @Field(defaultValue = "1,2,3")
+        int[] ids;
+
+        @Field
+        long[] sizes;
+
+        @Field
+        double[] weights;
+
+        @Field
+        Integer[] ports;
+
+        @Field
+        List<Long> offsets;
+
+        @Field
+        Map<String, Double> ratios;
+
+        @Field(defaultValue = "30,60")
+        Collection<Long> timeouts;
+
+        @Field(defaultValue = "read=0.25,write=0.5")
+        Map<String, Double> limits;
+
+        @Field
+        List<Object> labels;
+    }
+
+    static class Server {
+        @Field(required = true)
+        String host;
+
+        @Field
+        int port;
+
+        @Field
+        Pool pool;
+
+        @Field
+        List<Server> replicas;
+
+        @Field
+        Map<String, Pool> pools;
+    }
+
+    static class Pool {
+        @Field
+        int max;
+
+        @Field(defaultValue = "1")
+        int min;
+    }
+
+    @Test
+    public void shouldCreateWithCreatorConstructor() throws InvalidFieldException {
+        parameters.addChild("host", "primary").addChild(new Param("pool").addChild("max", "10"));
+
+        ImmutableServer server = mapper.create(parameters, ImmutableServer.class);
+
+        assertThat(server.host, is("primary"));
+        assertThat(server.port, is(80));
+        assertThat(server.weight, is(0));
+        assertThat(server.pool.max, is(10));
+    }
+
+    @Test
+    public void shouldCreateWithCreatorFactory() throws InvalidFieldException {
+        parameters.addChild("url", "http://www.google.ca");
+
+        Endpoint endpoint = mapper.create(parameters, Endpoint.class);
+
+        assertThat(endpoint.url.getHost(), is("www.google.ca"));
+    }
+
+    @Test
+    public void shouldCreateNestedWithCreator() throws InvalidFieldException {
+        parameters.addChild(new Param("servers")
+                .addChild(new Param("server").addChild("host", "first"))
+                .addChild(new Param("server").addChild("host", "second").addChild("port", "8080")));
+
+        Cluster cluster = mapper.create(parameters, Cluster.class);
+
+        assertThat(cluster.servers.size(), is(2));
+        assertThat(cluster.servers.get(1).host, is("second"));
+        assertThat(cluster.servers.get(1).port, is(8080));
+    }
+
+    @Test
+    public void shouldValidateCreatorRequiredParameter() throws InvalidFieldException {
+        expectedException.expect(InvalidFieldException.class);
+        expectedException.expectMessage("The parameter host is required. Cannot be null");
+
+        mapper.create(parameters, ImmutableServer.class);
+    }
+
+    @Test
+    public void shouldRejectCreatorParameterWithoutName() throws InvalidFieldException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The parameter 0 of the creator of " + UnnamedCreator.class.getName() + " needs a @Field name");
+
+        mapper.create(parameters, UnnamedCreator.class);
+    }
+
+    static final class ImmutableServer {
+        private final String host;
+        private final int port;
+        private final int weight;
+        private final Pool pool;
+
+        @Creator
+        ImmutableServer(@Field(name = "host", required = true) String host,
+                        @Field(name = "port", defaultValue = "80") int port,
+                        @Field(name = "weight") int weight,
+                        @Field(name = "pool") Pool pool) {
+            this.host = host;
+            this.port = port;
+            this.weight = weight;
+            this.pool = pool;
+        }
+    }
+
+    static final class Endpoint {
+        private final URL url;
+
+        private Endpoint(URL url) {
+            this.url = url;
+        }
+
+        @Creator
+        static Endpoint of(@Field(name = "url") URL url) {
+            return new Endpoint(url);
+        }
+    }
+
+    static class Cluster {
+        @Field
+        List<ImmutableServer> servers;
+    }
+
+    static class UnnamedCreator {
+        @Creator
+        UnnamedCreator(@Field String name) {
+        }
+    }
+
+    @Test
+    public void shouldPreferGeneratedMapper() throws InvalidFieldException {
+        parameters.addChild("value", "hello");
+
+        GeneratedObject generatedObject = new GeneratedObject();
+        mapper.mapParamToObject(parameters, generatedObject);
+
+        assertThat(generatedObject.value, is("generated hello"));
+    }
+
+    @Test
+    public void shouldNotUseGeneratedMapperWhenDisabled() throws InvalidFieldException {
+        parameters.addChild("value", "hello");
+
+        GeneratedObject generatedObject = new GeneratedObject();
+        mapper.setGeneratedMappers(false);
+        mapper.mapParamToObject(parameters, generatedObject);
+
+        assertThat(generatedObject.value, is("hello"));
+    }
+
+    @Test
+    public void shouldNotUseGeneratedMapperWhenBuiltinConverterIsReplaced() throws InvalidFieldException {
+        parameters.addChild("value", "hello");
+
+        GeneratedObject generatedObject = new GeneratedObject();
+        mapper.registerConverter(String.class, new TypeConverter<String>() {
+            @Override
+            public String convert(ParamFieldParser parser, Object value) {
+                return parser.parseString(value).toUpperCase();
+            }
+        });
+        mapper.mapParamToObject(parameters, generatedObject);
+
+        assertThat(generatedObject.value, is("HELLO"));
+    }
+
+    @Test
+    public void shouldUseGeneratedMapperWithConverterOfOtherType() throws InvalidFieldException {
+        parameters.addChild("value", "hello");
+
+        GeneratedObject generatedObject = new GeneratedObject();
+        mapper.registerConverter(UUID.class, new TypeConverter<UUID>() {
+            @Override
+            public UUID convert(ParamFieldParser parser, Object value) {
+                return UUID.fromString(parser.parseString(value));
+            }
+        });
+        mapper.mapParamToObject(parameters, generatedObject);
+
+        assertThat(generatedObject.value, is("generated hello"));
+    }
+
+    @Test
+    public void shouldNotCompileMappersByDefault() {
+        assertThat(new FieldValueMapper().isCompiledMappers(), is(false));
+    }
+
+    static class GeneratedObject {
+        @Field
+        String value;
+    }
+
+    /**
+     * Registered in META-INF/services, as the mappers generated by the fieldmapper-processor.
+     */
+    public static class GeneratedObjectMapper extends TypeMapper<GeneratedObject> {
+        public GeneratedObjectMapper() {
+            super(GeneratedObject.class);
+        }
+
+        @Override
+        public void map(FieldValueMapper mapper, Param parameters, GeneratedObject instance) throws InvalidFieldException {
+            Object value = value(parameters, "value", null, false);
+            if (value != null) {
+                instance.value = "generated " + mapper.getParser().parseString(value);
+            }
+        }
+    }
+
     private class EmptyObject {
 
     }
 
+    private class AnnotatedObjectWithConverter {
+        @Field
+        private UUID id;
+
+        @Field
+        private Math math;
+    }
+
+    private class BatchRecord {
+        @Field
+        private int id;
+
+        @Field(required = true)
+        private String label;
+    }
+
+    private class AnnotatedObjectWithPrimitive {
+        @Field
+        private long size;
+    }
+
     private class AnnotatedObjectNotSupported {
         @Field
         private Math math;
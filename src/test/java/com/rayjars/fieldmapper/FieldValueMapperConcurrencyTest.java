@@ -0,0 +1,118 @@
+package com.rayjars.fieldmapper;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Hundreds of threads share one mapper, starting together so the plans of the classes are built concurrently.
+ */
+public class FieldValueMapperConcurrencyTest {
+
+    private static final int THREADS = 256;
+
+    private static final int ITERATIONS = 100;
+
+    @Test
+    public void shouldShareMapperBetweenThreads() throws Exception {
+        stress(false);
+    }
+
+    @Test
+    public void shouldShareCompiledMapperBetweenThreads() throws Exception {
+        stress(true);
+    }
+
+    private void stress(boolean compiled) throws Exception {
+        final FieldValueMapper mapper = new FieldValueMapper();
+        mapper.setConverterRegistry(new ConverterRegistry());
+        mapper.setCompiledMappers(compiled);
+
+        final CyclicBarrier start = new CyclicBarrier(THREADS);
+        final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        Thread[] threads = new Thread[THREADS];
+
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            check(mapper, thread, i);
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(failures.toString(), failures, empty());
+    }
+
+    private static void check(FieldValueMapper mapper, int thread, int iteration) throws Exception {
+        long id = thread * 1000000L + iteration;
+        String date = "2005-10-" + (10 + thread % 18) + " 2:22:" + (10 + iteration % 50) + "PM";
+
+        Param parameters = new Param("root")
+                .addChild("id", String.valueOf(id))
+                .addChild("name", "thread " + thread)
+                .addChild("ratio", String.valueOf(iteration / 4.0))
+                .addChild("date", date)
+                .addChild(new Param("tags").addChild("tag", "t" + thread).addChild("tag", "i" + iteration))
+                .addChild(new Param("child").addChild("count", String.valueOf(iteration)));
+
+        Record record = new Record();
+        mapper.mapParamToObject(parameters, record);
+
+        assertThat(record.id, is(id));
+        assertThat(record.name, is("thread " + thread));
+        assertThat(record.ratio, is(iteration / 4.0));
+        assertThat(record.date, is(new SimpleDateFormat(StringFieldParser.DATE_FORMAT).parse(date)));
+        assertThat(record.tags, contains("t" + thread, "i" + iteration));
+        assertThat(record.child.count, is(iteration));
+        assertThat(record.enabled, is(true));
+    }
+
+    static class Record {
+        @Field
+        private long id;
+
+        @Field(required = true)
+        private String name;
+
+        @Field
+        private double ratio;
+
+        @Field
+        private Date date;
+
+        @Field
+        private List<String> tags;
+
+        @Field
+        private Child child;
+
+        @Field(defaultValue = "true")
+        private boolean enabled;
+    }
+
+    static class Child {
+        @Field
+        private int count;
+    }
+}
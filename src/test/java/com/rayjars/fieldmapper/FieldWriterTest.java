@@ -0,0 +1,71 @@
+package com.rayjars.fieldmapper;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class FieldWriterTest {
+
+    @Test
+    public void shouldWriteReferenceAndPrimitiveFields() throws Exception {
+        Target target = new Target();
+
+        writer("text").set(target, "hello");
+        writer("count").setInt(target, 42);
+        writer("total").setLong(target, Long.MAX_VALUE);
+        writer("ratio").setDouble(target, 0.5d);
+        writer("rate").setFloat(target, 0.25f);
+        writer("enabled").setBoolean(target, true);
+
+        assertThat(target.text, is("hello"));
+        assertThat(target.count, is(42));
+        assertThat(target.total, is(Long.MAX_VALUE));
+        assertThat(target.ratio, is(0.5d));
+        assertThat(target.rate, is(0.25f));
+        assertThat(target.enabled, is(true));
+    }
+
+    @Test
+    public void shouldUnboxValueForPrimitiveField() throws Exception {
+        Target target = new Target();
+
+        writer("total").set(target, 12L);
+
+        assertThat(target.total, is(12L));
+    }
+
+    @Test
+    public void shouldWriteFinalField() throws Exception {
+        Target target = new Target();
+
+        writer("constant").set(target, "changed");
+
+        assertThat(target.getConstant(), is("changed"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectPrimitiveOfAnotherType() throws Exception {
+        writer("count").setLong(new Target(), 1L);
+    }
+
+    private static FieldWriter writer(String name) throws NoSuchFieldException {
+        java.lang.reflect.Field field = Target.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return FieldWriter.of(field);
+    }
+
+    private static class Target {
+        private String text;
+        private int count;
+        private long total;
+        private double ratio;
+        private float rate;
+        private boolean enabled;
+        private final String constant = new String("constant");
+
+        public String getConstant() {
+            return constant;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.rayjars.fieldmapper;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+
+public class MappingListenerTest {
+
+    private FieldValueMapper mapper;
+
+    private RecordingListener listener;
+
+    @Before
+    public void setUpMapper() {
+        mapper = createMapper();
+        // a registry of its own, so the plans are built by the test
+        mapper.setConverterRegistry(new ConverterRegistry());
+        listener = new RecordingListener();
+        mapper.setMappingListener(listener);
+    }
+
+    protected FieldValueMapper createMapper() {
+        return new FieldValueMapper();
+    }
+
+    @Test
+    public void shouldReportPlanBuiltOnce() throws Exception {
+        mapper.mapParamToObject(new Param("root").addChild("host", "localhost"), new Server());
+        mapper.mapParamToObject(new Param("root").addChild("host", "localhost"), new Server());
+
+        assertThat(listener.events, hasItem("planBuilt Server"));
+        assertThat(count("planBuilt Server"), is(1));
+    }
+
+    @Test
+    public void shouldReportMappedFieldsAndDefaults() throws Exception {
+        Server server = new Server();
+        mapper.mapParamToObject(new Param("root").addChild("host", "localhost"), server);
+
+        assertThat(server.port, is(80));
+        assertThat(listener.events, hasItems("fieldMapped Server.host", "defaultApplied Server.port=80", "fieldMapped Server.port"));
+        assertThat(listener.nanos, greaterThanOrEqualTo(0L));
+    }
+
+    @Test
+    public void shouldReportRequiredMissing() throws Exception {
+        try {
+            mapper.mapParamToObject(new Param("root"), new Server());
+            fail();
+        } catch (InvalidFieldException e) {
+            assertThat(e.getMessage(), is("The parameter host is required. Cannot be null"));
+        }
+        assertThat(listener.events, hasItem("requiredMissing Server.host"));
+    }
+
+    @Test
+    public void shouldReportIgnoredInvalidValues() throws Exception {
+        mapper.setThrowExceptionInvalidValueParameter(false);
+        mapper.mapParamToObject(new Param("root").addChild("host", "localhost").addChild(new Param("aliases")), new Server());
+
+        assertThat(listener.events, hasItem("conversionFailed Server.aliases InvalidFieldValueException"));
+        assertThat(listener.events, not(hasItem("fieldMapped Server.aliases")));
+    }
+
+    @Test
+    public void shouldReportConverterErrors() throws Exception {
+        try {
+            mapper.mapParamToObject(new Param("root").addChild("host", "localhost").addChild("port", "eighty"), new Server());
+            fail();
+        } catch (NumberFormatException e) {
+            // runtime exceptions are not wrapped
+        }
+        assertThat(listener.events, hasItem("conversionFailed Server.port NumberFormatException"));
+    }
+
+    @Test
+    public void shouldReportCreatorParameters() throws Exception {
+        Endpoint endpoint = mapper.create(new Param("root").addChild("url", "http://localhost"), Endpoint.class);
+
+        assertThat(endpoint.timeout, is(30));
+        assertThat(listener.events, hasItems("planBuilt Endpoint", "fieldMapped Endpoint.url", "defaultApplied Endpoint.timeout=30"));
+    }
+
+    @Test
+    public void shouldMapWithCompiledMappersWhenListenerRemoved() throws Exception {
+        mapper.setCompiledMappers(true);
+        mapper.setMappingListener(null);
+        Server server = new Server();
+        mapper.mapParamToObject(new Param("root").addChild("host", "localhost"), server);
+
+        assertThat(server.host, is("localhost"));
+        assertThat(listener.events, is(empty()));
+    }
+
+    private int count(String event) {
+        int count = 0;
+        for (String e : listener.events) {
+            if (e.equals(event)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static class RecordingListener implements MappingListener {
+        private final List<String> events = new ArrayList<>();
+        private long nanos;
+
+        @Override
+        public void planBuilt(Class<?> type, long nanos) {
+            events.add("planBuilt " + type.getSimpleName());
+        }
+
+        @Override
+        public void fieldMapped(Class<?> type, String name, long nanos) {
+            events.add("fieldMapped " + type.getSimpleName() + "." + name);
+            this.nanos += nanos;
+        }
+
+        @Override
+        public void defaultApplied(Class<?> type, String name, String defaultValue) {
+            events.add("defaultApplied " + type.getSimpleName() + "." + name + "=" + defaultValue);
+        }
+
+        @Override
+        public void requiredMissing(Class<?> type, String name) {
+            events.add("requiredMissing " + type.getSimpleName() + "." + name);
+        }
+
+        @Override
+        public void conversionFailed(Class<?> type, String name, Exception cause) {
+            events.add("conversionFailed " + type.getSimpleName() + "." + name + " " + cause.getClass().getSimpleName());
+        }
+    }
+
+    public static class Server {
+        @Field(name = "host", required = true)
+        private String host;
+
+        @Field(name = "port", defaultValue = "80")
+        private int port;
+
+        @Field(name = "aliases")
+        private List<String> aliases;
+    }
+
+    public static class Endpoint {
+        private final String url;
+        private final int timeout;
+
+        @Creator
+        public Endpoint(@Field(name = "url", required = true) String url, @Field(name = "timeout", defaultValue = "30") int timeout) {
+            this.url = url;
+            this.timeout = timeout;
+        }
+    }
+}
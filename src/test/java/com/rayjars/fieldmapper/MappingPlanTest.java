@@ -0,0 +1,119 @@
+package com.rayjars.fieldmapper;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MappingPlanTest {
+
+    @Test
+    public void shouldBuildPlanOncePerClass() {
+        assertThat(MappingPlan.of(AnnotatedObject.class), sameInstance(MappingPlan.of(AnnotatedObject.class)));
+    }
+
+    @Test
+    public void shouldResolveAnnotatedFields() {
+        FieldMapping[] fields = MappingPlan.of(AnnotatedObject.class).getFields();
+
+        assertThat(fields.length, is(2));
+        assertThat(fields[0].getName(), is("test.name"));
+        assertThat(fields[0].isRequired(), is(true));
+        assertThat(fields[0].getDefaultValue(), nullValue());
+        assertThat(fields[1].getName(), is("count"));
+        assertThat(fields[1].getDefaultValue(), is("10"));
+        assertThat(fields[1].getConverter(), sameInstance((TypeConverter) BuiltinConverters.INTEGER));
+    }
+
+    @Test
+    public void shouldBuildEmptyPlan() {
+        assertThat(MappingPlan.of(Object.class).getFields().length, is(0));
+    }
+
+    @Test
+    public void shouldShareNestedPlans() {
+        FieldMapping[] fields = MappingPlan.of(Node.class).getFields();
+
+        assertThat(fields[1].getConverter(), nullValue());
+        assertThat(fields[1].getNested().getPlan(), sameInstance(MappingPlan.of(Leaf.class)));
+        // cycle, resolved at the first use
+        assertThat(fields[2].getNested().getPlan(), sameInstance(MappingPlan.of(Node.class)));
+        assertThat(fields[0].getNested(), nullValue());
+    }
+
+    @Test
+    public void shouldNotNestTypesWithoutAnnotatedFields() {
+        assertThat(MappingPlan.isNestable(Node.class), is(true));
+        assertThat(MappingPlan.isNestable(AnnotatedObject.class), is(true));
+        assertThat(MappingPlan.isNestable(Object.class), is(false));
+        assertThat(MappingPlan.isNestable(Runnable.class), is(false));
+    }
+
+    @Test
+    public void shouldResolveInheritedFieldsWithShadowing() throws Exception {
+        FieldMapping[] fields = MappingPlan.of(Derived.class).getFields();
+
+        assertThat(fields.length, is(3));
+        assertThat(fields[0].getName(), is("test.name"));
+        assertThat(fields[0].getField(), is(Derived.class.getDeclaredField("label")));
+        assertThat(fields[1].getName(), is("count"));
+        assertThat(fields[1].getField().getDeclaringClass(), equalTo((Object) AnnotatedObject.class));
+        assertThat(fields[2].getName(), is("extra"));
+        assertThat(MappingPlan.isNestable(Derived$$EnhancerByCGLIB$$1f2e.class), is(true));
+    }
+
+    @Test
+    public void shouldResolveTargetClassOfProxies() {
+        assertThat(MappingPlan.targetClass(Derived$$EnhancerByCGLIB$$1f2e.class), equalTo((Object) Derived.class));
+        assertThat(MappingPlan.targetClass(Derived.class), equalTo((Object) Derived.class));
+        assertThat(MappingPlan.targetClass(Object.class), equalTo((Object) Object.class));
+    }
+
+    @Test
+    public void shouldResolveGeneratedMapperOnce() {
+        MappingPlan plan = MappingPlan.of(FieldMapperTest.GeneratedObject.class);
+
+        assertThat(plan.getGeneratedMapper(), notNullValue());
+        assertThat(plan.getGeneratedMapper(), sameInstance((Object) plan.getGeneratedMapper()));
+        assertThat(MappingPlan.of(Leaf.class).getGeneratedMapper(), nullValue());
+    }
+
+    private static class Node {
+        @Field
+        private List<String> names;
+
+        @Field
+        private Leaf leaf;
+
+        @Field
+        private List<Node> children;
+    }
+
+    private static class Leaf {
+        @Field
+        private String value;
+    }
+
+    private static class AnnotatedObject {
+        @Field(name = "test.name", required = true)
+        private String name;
+
+        @Field(defaultValue = "10")
+        private int count;
+
+        private String notMapped;
+    }
+
+    private static class Derived extends AnnotatedObject {
+        @Field(name = "test.name")
+        private String label;
+
+        @Field
+        private String extra;
+    }
+
+    private static class Derived$$EnhancerByCGLIB$$1f2e extends Derived {
+    }
+}
@@ -0,0 +1,241 @@
+package com.rayjars.fieldmapper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+
+public class ParamCodecTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldRoundTripTree() {
+        Param param = sample();
+
+        ByteBuffer buffer = ParamCodec.encode(param);
+        assertThat(buffer.remaining(), is(ParamCodec.encodedSize(param)));
+
+        assertSameTree(ParamCodec.decode(buffer), param);
+        assertThat(buffer.hasRemaining(), is(false));
+    }
+
+    @Test
+    public void shouldDecodeDirectBufferAtItsPosition() {
+        Param param = sample();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(ParamCodec.encodedSize(param) + 8);
+        buffer.putInt(42);
+        ParamCodec.encode(param, buffer);
+        buffer.putInt(43);
+        buffer.flip();
+
+        assertThat(buffer.getInt(), is(42));
+        assertSameTree(ParamCodec.decode(buffer), param);
+        assertThat(buffer.getInt(), is(43));
+    }
+
+    @Test
+    public void shouldStoreRepeatedNamesOnce() throws Exception {
+        Param param = new Param("root");
+        for (int i = 0; i < 1000; i++) {
+            param.addChild(new Param("server").addChild("host", "host" + i).addChild("port", String.valueOf(i)));
+        }
+
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(param);
+        }
+
+        ByteBuffer buffer = ParamCodec.encode(param);
+        assertThat(buffer.remaining(), lessThan(serialized.size() / 3));
+
+        Param decoded = ParamCodec.decode(buffer);
+        assertThat(decoded.getChilds().size(), is(1000));
+        assertThat(decoded.getChilds().get(999).getChild("host").getValue(), is("host999"));
+    }
+
+    @Test
+    public void shouldKeepIndexOfWideParams() {
+        Properties properties = new Properties();
+        for (int i = 0; i < 100; i++) {
+            properties.setProperty("key" + i, "value" + i);
+        }
+
+        Param decoded = ParamCodec.decode(ParamCodec.encode(new Param("root", properties)));
+
+        assertThat(decoded.getChild("key42").getValue(), is("value42"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectOtherContent() {
+        ParamCodec.decode(ByteBuffer.wrap("not a param".getBytes()));
+    }
+
+    @Test
+    public void shouldRejectMalformedCounts() {
+        byte[][] malformed = {
+                // Integer.MAX_VALUE names
+                {'F', 'M', 'P', 1, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07},
+                // a root with 1000 children in 4 bytes
+                {'F', 'M', 'P', 1, 0, 0, 0, (byte) 0xe8, 0x07, 0, 0},
+                // Integer.MAX_VALUE children
+                {'F', 'M', 'P', 1, 0, 0, 0, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07}
+        };
+        for (byte[] bytes : malformed) {
+            try {
+                ParamCodec.decode(ByteBuffer.wrap(bytes));
+                fail("decoded a malformed buffer");
+            } catch (IllegalArgumentException e) {
+                assertThat(e.getMessage(), startsWith("Malformed"));
+            }
+        }
+    }
+
+    @Test(expected = BufferUnderflowException.class)
+    public void shouldRejectTruncatedContent() {
+        ByteBuffer buffer = ParamCodec.encode(sample());
+        buffer.limit(buffer.limit() - 3);
+
+        ParamCodec.decode(buffer);
+    }
+
+    @Test
+    public void shouldViewTreeWithoutMovingPosition() {
+        Param param = sample();
+        ByteBuffer heap = ParamCodec.encode(param);
+        ByteBuffer direct = ByteBuffer.allocateDirect(heap.remaining());
+        direct.put(heap.duplicate()).flip();
+
+        assertSameTree(ParamCodec.view(heap), param);
+        assertSameTree(ParamCodec.view(direct), param);
+        assertThat(heap.position(), is(0));
+        assertThat(ParamCodec.view(heap).getChild("pool").getChild("max").getValue(), is("10"));
+        assertThat(ParamCodec.view(heap).getChild(null).getValue(), is("nullName"));
+        assertThat(ParamCodec.view(heap).getChild("unknown"), nullValue());
+        assertThat(ParamCodec.view(ParamCodec.encode(new Param("root").addChild("\u00e9t\u00e9 \ud83d\ude00", "summer")))
+                .getChild("\u00e9t\u00e9 \ud83d\ude00").getValue(), is("summer"));
+        assertThat(ParamCodec.view(heap).getChild("caf\u00e9"), nullValue());
+    }
+
+    @Test
+    public void shouldFindLastChildOfNameInWideView() {
+        Param param = new Param("root");
+        for (int i = 0; i < 100; i++) {
+            param.addChild("key" + (i % 50), "value" + i);
+        }
+        param.addChild("leaf", null);
+
+        Param view = ParamCodec.view(ParamCodec.encode(param));
+
+        assertThat(view.getChilds().size(), is(101));
+        assertThat(view.getChild("key0").getValue(), is("value50"));
+        assertThat(view.getChild("key49").getValue(), is("value99"));
+        assertThat(view.getChild("leaf").getValue(), nullValue());
+        assertThat(view.getChild("key0"), sameInstance(view.getChild("key0")));
+
+        Param scanned = ParamCodec.view(ParamCodec.encode(param));
+        Param first = scanned.getChild("key49");
+        assertThat(first.getValue(), is("value99"));
+        assertThat(scanned.getChild("key49"), sameInstance(first));
+        assertThat(scanned.getChilds().get(99), sameInstance(first));
+        assertThat(scanned.getChild("unknown"), nullValue());
+    }
+
+    @Test
+    public void shouldFindEveryNameOfLargeDictionary() {
+        Param param = new Param("root");
+        for (int i = 0; i < 1000; i++) {
+            param.addChild("name\u00e9" + i, String.valueOf(i));
+        }
+        param.addChild("lone \ud800", "surrogate");
+
+        Param view = ParamCodec.view(ParamCodec.encode(param));
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(view.getChild("name\u00e9" + i).getValue(), is(String.valueOf(i)));
+            assertThat(view.getChild("name" + i), nullValue());
+        }
+        assertThat(view.getChild("lone \ud800").getValue(), is("surrogate"));
+        assertThat(view.getChild("lone ?").getValue(), is("surrogate"));
+    }
+
+    @Test
+    public void shouldMapObjectFromMappedFile() throws Exception {
+        Param param = new Param("root").addChild("host", "primary")
+                .addChild(new Param("pool").addChild("max", "8"))
+                .addChild(new Param("replicas").addChild(new Param("replica").addChild("host", "replica1")));
+        File file = folder.newFile("config.fmp");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            ByteBuffer buffer = ParamCodec.encode(param);
+            out.write(buffer.array(), 0, buffer.limit());
+        }
+
+        FieldMapperTest.Server server = new FieldMapperTest.Server();
+        new FieldValueMapper().mapParamToObject(ParamCodec.view(file), server);
+
+        assertThat(server.host, is("primary"));
+        assertThat(server.pool.max, is(8));
+        assertThat(server.replicas.get(0).host, is("replica1"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldRejectModificationOfView() {
+        ParamCodec.view(ParamCodec.encode(sample())).addChild("host", "other");
+    }
+
+    @Test
+    public void shouldSerializeViewAsParam() throws Exception {
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(ParamCodec.view(ParamCodec.encode(sample())));
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized.toByteArray()))) {
+            Param param = (Param) in.readObject();
+            assertThat(param.getClass(), equalTo((Object) Param.class));
+            assertSameTree(param, sample());
+        }
+    }
+
+    static Param sample() {
+        return new Param("root")
+                .addChild("host", "localhost")
+                .addChild("empty", "")
+                .addChild(new Param("nullValue"))
+                .addChild(new Param(null, "nullName"))
+                .addChild("unicode", "caf\u00e9 \u20ac \ud83d\ude00 \ud800")
+                .addChild(new Param("pool", "node value").addChild("max", "10").addChild("min", "1"))
+                .addChild(new Param("servers")
+                        .addChild(new Param("server").addChild("host", "a"))
+                        .addChild(new Param("server").addChild("host", "b").addChild(new Param("pool").addChild("max", "2"))));
+    }
+
+    static void assertSameTree(Param actual, Param expected) {
+        assertThat(actual.getName(), is(expected.getName()));
+        if (expected.getValue() != null && expected.getValue().indexOf('\ud800') >= 0) {
+            // an unpaired surrogate is not valid UTF-8, it is replaced as by String.getBytes
+            assertThat(actual.getValue(), is(new String(expected.getValue().getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8)));
+        } else {
+            assertThat(actual.getValue(), is(expected.getValue()));
+        }
+        assertThat(actual.getChilds().size(), is(expected.getChilds().size()));
+        for (int i = 0; i < expected.getChilds().size(); i++) {
+            assertSameTree(actual.getChilds().get(i), expected.getChilds().get(i));
+        }
+    }
+}
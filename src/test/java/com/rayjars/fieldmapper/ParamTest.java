@@ -0,0 +1,167 @@
+package com.rayjars.fieldmapper;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.Properties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ParamTest {
+
+    @Test
+    public void shouldHaveNoChildren() {
+        Param leaf = new Param("leaf", "value");
+
+        assertThat(leaf.containsNoChilds(), is(true));
+        assertThat(leaf.getChilds(), empty());
+        assertThat(leaf.getChild("any"), nullValue());
+    }
+
+    @Test
+    public void shouldFindLastChildAdded() {
+        for (int size : new int[]{2, Param.INDEX_THRESHOLD + 2}) {
+            Param param = new Param("root");
+            for (int i = 0; i < size; i++) {
+                param.addChild("child" + i, String.valueOf(i));
+            }
+            param.addChild("child0", "last");
+
+            assertThat(param.getChild("child0").getValue(), is("last"));
+            assertThat(param.getChild("child1").getValue(), is("1"));
+            assertThat(param.getChild("unknown"), nullValue());
+            assertThat(param.getChilds().size(), is(size + 1));
+            assertThat(param.getChilds().get(0).getValue(), is("0"));
+        }
+    }
+
+    @Test
+    public void shouldSeeChildrenAddedAfterView() {
+        Param param = new Param("root").addChild("first", "1");
+        List<Param> children = param.getChilds();
+
+        param.addChild("second", "2");
+
+        assertThat(children.size(), is(2));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotModifyChildren() {
+        new Param("root").addChild("first", "1").getChilds().add(new Param("second"));
+    }
+
+    @Test
+    public void shouldRebuildIndexWhenDeserialized() throws Exception {
+        Param param = new Param("root");
+        for (int i = 0; i < Param.INDEX_THRESHOLD * 2; i++) {
+            param.addChild("child" + i, String.valueOf(i));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(param);
+        }
+        Param copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (Param) in.readObject();
+        }
+
+        assertThat(copy.getChild("child12").getValue(), is("12"));
+        assertThat(copy.getChilds().size(), is(Param.INDEX_THRESHOLD * 2));
+    }
+
+    @Test
+    public void shouldSerializeOnlyAddedChildren() throws Exception {
+        Param grown = new Param("root");
+        Param sized = new Param("root", null, 3);
+        for (int i = 0; i < 3; i++) {
+            grown.addChild("child" + i, String.valueOf(i));
+            sized.addChild("child" + i, String.valueOf(i));
+        }
+
+        byte[] bytes = serialize(grown);
+        assertThat(bytes.length, is(serialize(sized).length));
+
+        Param copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            copy = (Param) in.readObject();
+        }
+        copy.addChild("child3", "3");
+        assertThat(copy.getChilds().size(), is(4));
+        assertThat(copy.getChild("child1").getValue(), is("1"));
+        assertThat(copy.getChild("child1").getChilds().isEmpty(), is(true));
+    }
+
+    private static byte[] serialize(Param param) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(param);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void shouldSplitDottedNames() {
+        Properties properties = new Properties();
+        properties.setProperty("db.url", "jdbc:h2:mem");
+        properties.setProperty("db.pool.max", "10");
+        properties.setProperty("db.pool.min", "2");
+        properties.setProperty("name", "app");
+
+        ParamHierarchy hierarchy = new Param("root", properties).getHierarchy();
+
+        assertThat(hierarchy.subtree("db.url").getValue(), is("jdbc:h2:mem"));
+        assertThat(hierarchy.subtree("db.pool").getChilds().size(), is(2));
+        assertThat(hierarchy.subtree("db.pool").getChild("max").getValue(), is("10"));
+        assertThat(hierarchy.subtree("name").getValue(), is("app"));
+        assertThat(hierarchy.subtree("db.unknown.max"), nullValue());
+        assertThat(hierarchy.getRoot().getChilds().size(), is(2));
+    }
+
+    @Test
+    public void shouldKeepChildWithoutNameInHierarchy() {
+        Param param = new Param("root").addChild(null, "unnamed").addChild("db.url", "jdbc:h2:mem");
+
+        ParamHierarchy hierarchy = param.getHierarchy();
+
+        assertThat(hierarchy.getRoot().getChild(null).getValue(), is("unnamed"));
+        assertThat(hierarchy.subtree("db.url").getValue(), is("jdbc:h2:mem"));
+    }
+
+    @Test
+    public void shouldShareHierarchyUntilModified() {
+        Param param = new Param("root").addChild("db.pool.max", "10");
+        ParamHierarchy hierarchy = param.getHierarchy();
+
+        assertThat(param.getHierarchy(), sameInstance(hierarchy));
+
+        param.putChild("db.pool.max", "20");
+
+        assertThat(param.getHierarchy(), not(sameInstance(hierarchy)));
+        assertThat(param.getHierarchy().subtree("db.pool.max").getValue(), is("20"));
+    }
+
+    @Test
+    public void shouldMapSubtree() throws Exception {
+        Param param = new Param("root").addChild("db.pool.max", "10").addChild("db.pool.min", "2");
+
+        PoolSettings settings = new PoolSettings();
+        new FieldValueMapper().mapParamToObject(param.getHierarchy().subtree("db.pool"), settings);
+
+        assertThat(settings.max, is(10));
+        assertThat(settings.min, is(2));
+    }
+
+    private static class PoolSettings {
+        @Field
+        private int max;
+
+        @Field
+        private int min;
+    }
+}
@@ -0,0 +1,236 @@
+package com.rayjars.fieldmapper;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.*;
+import java.io.File;
+import java.net.URL;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ParamWriterTest {
+
+    private FieldValueMapper mapper;
+
+    @Before
+    public void createMapper() {
+        mapper = new FieldValueMapper();
+    }
+
+    @Test
+    public void shouldRoundTripBuiltinTypes() throws Exception {
+        AllTypes source = AllTypes.sample();
+
+        Param param = mapper.mapObjectToParam(source);
+        AllTypes copy = new AllTypes();
+        mapper.mapParamToObject(param, copy);
+
+        assertThat(param.getChild("date").getValue(), is(new SimpleDateFormat(StringFieldParser.DATE_MILLSECONDS_FORMAT).format(source.date)));
+        assertThat(param.getChild("list").getChilds().size(), is(2));
+        assertEqual(copy, source);
+    }
+
+    @Test
+    public void shouldRoundTripProperties() throws Exception {
+        AllTypes source = AllTypes.sample();
+        source.list = Collections.singletonList("a,b");
+
+        Properties properties = mapper.mapObjectToProperties(source);
+        AllTypes copy = new AllTypes();
+        mapper.mapParamToObject(new Param("root", properties).getHierarchy().getRoot(), copy);
+
+        assertThat(properties.getProperty("list.0"), is("a,b"));
+        assertThat(properties.getProperty("map.key"), is("a=b,c"));
+        assertEqual(copy, source);
+    }
+
+    @Test
+    public void shouldRoundTripTypedCollections() throws Exception {
+        FieldMapperTest.TypedCollections source = new FieldMapperTest.TypedCollections();
+        mapper.mapParamToObject(new Param("root").addChild(new Param("sizes").addChild("0", "3"))
+                .addChild(new Param("weights").addChild("0", "0.5")).addChild(new Param("ports").addChild("0", "80"))
+                .addChild(new Param("offsets").addChild("0", "10").addChild("1", "20"))
+                .addChild(new Param("ratios").addChild("cpu", "0.75")), source);
+
+        Param param = mapper.mapObjectToParam(source);
+        FieldMapperTest.TypedCollections copy = new FieldMapperTest.TypedCollections();
+        mapper.mapParamToObject(param, copy);
+
+        assertThat(param.getChild("ids").getChilds().size(), is(3));
+        assertThat(copy.ids, equalTo(source.ids));
+        assertThat(copy.sizes, equalTo(source.sizes));
+        assertThat(copy.weights, equalTo(source.weights));
+        assertThat(copy.ports, equalTo(source.ports));
+        assertThat(copy.offsets, equalTo(source.offsets));
+        assertThat(copy.ratios, equalTo(source.ratios));
+        assertThat(copy.timeouts, contains(30L, 60L));
+        assertThat(copy.limits, equalTo(source.limits));
+    }
+
+    @Test
+    public void shouldRoundTripNullElements() throws Exception {
+        AllTypes source = AllTypes.sample();
+        source.array = new String[]{"a", null};
+        source.list = Arrays.asList(null, "null");
+        source.map.put("none", null);
+        FieldMapperTest.TypedCollections typed = new FieldMapperTest.TypedCollections();
+        typed.ports = new Integer[]{80, null};
+        typed.offsets = Arrays.asList(null, 20L);
+        typed.ratios = new HashMap<>();
+        typed.ratios.put("cpu", null);
+
+        Param param = mapper.mapObjectToParam(source);
+        AllTypes copy = new AllTypes();
+        mapper.mapParamToObject(param, copy);
+        Param typedParam = mapper.mapObjectToParam(typed);
+        FieldMapperTest.TypedCollections typedCopy = new FieldMapperTest.TypedCollections();
+        mapper.mapParamToObject(typedParam, typedCopy);
+
+        assertThat(param.getChild("list").getChild("0").getValue(), nullValue());
+        assertEqual(copy, source);
+        assertThat(typedCopy.ports, arrayContaining(80, null));
+        assertThat(typedCopy.offsets, contains(null, 20L));
+        assertThat(typedCopy.ratios.containsKey("cpu"), is(true));
+        assertThat(typedCopy.ratios.get("cpu"), nullValue());
+    }
+
+    @Test
+    public void shouldWriteNestedObjects() throws Exception {
+        FieldMapperTest.Server server = new FieldMapperTest.Server();
+        mapper.mapParamToObject(new Param("root").addChild("host", "primary")
+                .addChild(new Param("pool").addChild("max", "8"))
+                .addChild(new Param("replicas")
+                        .addChild(new Param("replica").addChild("host", "replica1"))
+                        .addChild(new Param("replica").addChild("host", "replica2").addChild(new Param("pool").addChild("min", "2"))))
+                .addChild(new Param("pools").addChild(new Param("read").addChild("max", "4"))), server);
+        server.replicas.remove(0);
+
+        Param param = mapper.mapObjectToParam(server);
+        FieldMapperTest.Server copy = new FieldMapperTest.Server();
+        mapper.mapParamToObject(param, copy);
+
+        assertThat(copy.host, is("primary"));
+        assertThat(copy.pool.max, is(8));
+        assertThat(copy.replicas.size(), is(1));
+        assertThat(copy.replicas.get(0).host, is("replica2"));
+        assertThat(copy.replicas.get(0).pool.min, is(2));
+        assertThat(copy.pools.get("read").max, is(4));
+
+        Properties properties = mapper.mapObjectToProperties(server);
+        assertThat(properties.getProperty("replicas.0.pool.min"), is("2"));
+        FieldMapperTest.Server fromProperties = new FieldMapperTest.Server();
+        mapper.mapParamToObject(new Param("root", properties).getHierarchy().getRoot(), fromProperties);
+        assertThat(fromProperties.replicas.get(0).pool.min, is(2));
+        assertThat(fromProperties.pools.get("read").max, is(4));
+    }
+
+    @Test
+    public void shouldSkipNullFieldsAndUseRegisteredFormatter() throws Exception {
+        mapper.registerConverter(UUID.class, new TypeConverter<UUID>() {
+            @Override
+            public UUID convert(ParamFieldParser parser, Object value) {
+                return UUID.fromString(parser.parseString(value));
+            }
+        });
+        mapper.registerFormatter(UUID.class, new TypeFormatter<UUID>() {
+            @Override
+            public String format(StringFieldFormatter formatter, UUID value) {
+                return value.toString().toUpperCase();
+            }
+        });
+        Identified source = new Identified();
+        source.id = UUID.randomUUID();
+
+        Param param = mapper.mapObjectToParam(source);
+        Identified copy = new Identified();
+        mapper.mapParamToObject(param, copy);
+
+        assertThat(param.getChild("name"), nullValue());
+        assertThat(param.getChild("id").getValue(), is(source.id.toString().toUpperCase()));
+        assertThat(copy.id, is(source.id));
+    }
+
+    private static void assertEqual(AllTypes copy, AllTypes source) {
+        assertThat(copy.string, is(source.string));
+        assertThat(copy.primitiveInt, is(source.primitiveInt));
+        assertThat(copy.integer, is(source.integer));
+        assertThat(copy.primitiveLong, is(source.primitiveLong));
+        assertThat(copy.primitiveFloat, is(source.primitiveFloat));
+        assertThat(copy.primitiveDouble, is(source.primitiveDouble));
+        assertThat(copy.bool, is(source.bool));
+        assertThat(copy.date, is(source.date));
+        assertThat(copy.file, is(source.file));
+        assertThat(copy.url.toExternalForm(), is(source.url.toExternalForm()));
+        assertThat(copy.array, is(source.array));
+        assertThat(copy.list, is(source.list));
+        assertThat(copy.map, is(source.map));
+        assertThat(copy.color, is(source.color));
+        assertThat(copy.font, is(source.font));
+    }
+
+    static class AllTypes {
+        @Field
+        String string;
+        @Field
+        int primitiveInt;
+        @Field
+        Integer integer;
+        @Field
+        long primitiveLong;
+        @Field
+        float primitiveFloat;
+        @Field
+        double primitiveDouble;
+        @Field
+        Boolean bool;
+        @Field
+        Date date;
+        @Field
+        File file;
+        @Field
+        URL url;
+        @Field
+        String[] array;
+        @Field
+        List<String> list;
+        @Field
+        Map<String, String> map;
+        @Field
+        Color color;
+        @Field
+        Font font;
+
+        static AllTypes sample() throws Exception {
+            AllTypes object = new AllTypes();
+            object.string = "hello, world";
+            object.primitiveInt = -42;
+            object.integer = Integer.MAX_VALUE;
+            object.primitiveLong = Long.MIN_VALUE;
+            object.primitiveFloat = 0.1f;
+            object.primitiveDouble = 1d / 3;
+            object.bool = true;
+            object.date = new Date(1128608575123L);
+            object.file = new File("/var/log/app.log");
+            object.url = new URL("http://www.google.ca/search?q=fieldmapper");
+            object.array = new String[]{"a,b", "c"};
+            object.list = Arrays.asList("x=1", "y,2");
+            object.map = new HashMap<>();
+            object.map.put("key", "a=b,c");
+            object.color = new Color(0xD06000);
+            object.font = new Font("Courier", Font.BOLD | Font.ITALIC, 24);
+            return object;
+        }
+    }
+
+    static class Identified {
+        @Field
+        UUID id;
+        @Field
+        String name;
+    }
+}
@@ -0,0 +1,94 @@
+package com.rayjars.fieldmapper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class PropertiesLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldLoadAsProperties() throws IOException {
+        File file = write("# comment\n" +
+                "! other comment \\\n" +
+                "   \n" +
+                "test.String = Hello World\r\n" +
+                "test.int:10\r" +
+                "test.colon    :  value:with=separators\n" +
+                "test.space value\n" +
+                "escaped\\ key\\=name=tab\\tnew\\nline\\\\\n" +
+                "unicode=caf\\u00e9\n" +
+                "latin1=caf\u00e9\n" +
+                "continued = first, \\\n" +
+                "            second, \\\r\n" +
+                "            third\n" +
+                "empty=\n" +
+                "alone\n" +
+                "duplicate=first\n" +
+                "duplicate=second\n" +
+                "last=no end of line\\");
+
+        Param param = new Param("root").load(file);
+
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        }
+        assertThat(param.getChilds().size(), is(properties.size()));
+        for (String key : properties.stringPropertyNames()) {
+            assertThat(key, param.getChild(key).getValue(), is(properties.getProperty(key)));
+        }
+        assertThat(param.getChild("continued").getValue(), is("first, second, third"));
+        assertThat(param.getChild("duplicate").getValue(), is("second"));
+    }
+
+    @Test
+    public void shouldLoadEmptyFile() throws IOException {
+        assertThat(new Param("root").load(write("")).containsNoChilds(), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMalformedUnicode() throws IOException {
+        new Param("root").load(write("key=\\u00zz"));
+    }
+
+    @Test
+    public void shouldMapLoadedFile() throws Exception {
+        Param param = new Param("root").load(write("test.String=Hello\ntest.int=42\n"));
+
+        MappedObject mappedObject = new MappedObject();
+        new FieldValueMapper().mapParamToObject(param, mappedObject);
+
+        assertThat(mappedObject.testString, is("Hello"));
+        assertThat(mappedObject.testInt, is(42));
+    }
+
+    private File write(String content) throws IOException {
+        File file = folder.newFile();
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes("ISO-8859-1"));
+        }
+        return file;
+    }
+
+    private static class MappedObject {
+        @Field(name = "test.String")
+        private String testString;
+
+        @Field(name = "test.int")
+        private int testInt;
+    }
+}
@@ -6,9 +6,18 @@ import org.junit.Test;
 import java.awt.*;
 import java.io.File;
 import java.net.URL;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -34,6 +43,58 @@ public class StringFieldParserTest {
         assertThat(parser.parseDate(new String[]{"dd-MM-yyyy HH:mm"}, "06-10-2005 14:02"), sameInstant(new SimpleDateFormat("dd-MM-yyyy HH:mm").parse("06-10-2005 14:02")));
     }
 
+    @Test
+    public void testParseDateWithoutTime() throws Exception {
+        assertThat(parser.parseDate("2005-10-06"), sameInstant(new SimpleDateFormat(StringFieldParser.ONLY_DATE).parse("2005-10-06")));
+    }
+
+    @Test
+    public void testParseDateWithTime() throws Exception {
+        assertThat(parser.parseDate("2005-10-06 2:22:55PM"), sameInstant(new SimpleDateFormat(StringFieldParser.DATE_FORMAT).parse("2005-10-06 2:22:55PM")));
+    }
+
+    @Test(expected = ParseException.class)
+    public void testParseInvalidDate() throws Exception {
+        parser.parseDate("06/10/2005");
+    }
+
+    @Test
+    public void testParseDateConcurrently() throws Exception {
+        final Date expected = new SimpleDateFormat(StringFieldParser.DATE_MILLSECONDS_FORMAT).parse("2005-10-06 2:22:55.1 PM");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Date>> dates = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                dates.add(executor.submit(new Callable<Date>() {
+                    @Override
+                    public Date call() throws Exception {
+                        return parser.parseDate("2005-10-06 2:22:55.1 PM");
+                    }
+                }));
+            }
+            for (Future<Date> date : dates) {
+                assertThat(date.get(), sameInstant(expected));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParseDateInCurrentDefaultTimeZone() throws Exception {
+        TimeZone timeZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            assertThat(parser.parseDate("2005-10-06").getTime(), is(1128556800000L));
+
+            TimeZone.setDefault(TimeZone.getTimeZone("GMT+02:00"));
+            assertThat(parser.parseDate("2005-10-06").getTime(), is(1128556800000L - 2 * 3600 * 1000));
+            assertThat(new StringFieldFormatter().formatDate(new Date(1128556800000L)), startsWith("2005-10-06 02:00:00"));
+        } finally {
+            TimeZone.setDefault(timeZone);
+        }
+    }
+
     @Test
     public void testParseArray() throws Exception {
        assertThat(parser.parseArray("1,2,3"), arrayContaining("1", "2", "3"));
@@ -68,6 +129,22 @@ public class StringFieldParserTest {
         assertThat(parser.parseMap("key1=1,key2=2,key3=3"), equalTo(valueExpected));
     }
 
+    @Test
+    public void testParseArrayAndMapAsSplit() throws Exception {
+        String[] values = {"", ",", ",,,", "a", "a,", "a,,", ",a", "a,,b", " a , b ", "a=1", "a=", "=1", "=", "a=1,b",
+                "a=1,b=", "a=1,,b=2", "a=1=b=2", "a==1", "a=1,a=2", "a\\,b=c", "=,=,a=1,="};
+        for (String value : values) {
+            assertThat(value, parser.parseArray(value), equalTo(value.split(",")));
+
+            Map<String, String> expected = new HashMap<>();
+            String[] tokens = value.split(StringFieldParser.REGEX_MAP);
+            for (int i = 0; i < tokens.length - 1; i += 2) {
+                expected.put(tokens[i], tokens[i + 1]);
+            }
+            assertThat(value, parser.parseMap(value), equalTo(expected));
+        }
+    }
+
     @Test
     public void testParseColor(){
         assertThat(parser.parseColor("#D06000"), equalTo(Color.decode("#D06000")));
@@ -78,4 +155,13 @@ public class StringFieldParserTest {
         assertThat(parser.parseFont("Courier-PLAIN-24"), equalTo(Font.decode("Courier-PLAIN-24")));
     }
 
+    @Test
+    public void testParsePrimitiveValues(){
+        assertThat(parser.parseLongValue("123456789012"), is(123456789012L));
+        assertThat(parser.parseIntValue("42"), is(42));
+        assertThat(parser.parseFloatValue("1.5"), is(1.5f));
+        assertThat(parser.parseDoubleValue("2.25"), is(2.25d));
+        assertThat(parser.parseBooleanValue("true"), is(true));
+    }
+
 }